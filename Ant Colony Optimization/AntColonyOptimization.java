@@ -1,19 +1,53 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class AntColonyOptimization {
     private static final int MAX_ITERATIONS = 20;
     private static final int NUMBER_OF_ANTS = 10;
+    // Ants of one iteration construct their solutions in parallel when this is enabled, see solveConcurrently
+    private static final boolean CONCURRENT_COLONY = true;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long SEED = 42;
+    // Candidate list: 0 scores every ready item on every step, k > 0 only the k best items that fit the current bin
+    private static final int CANDIDATE_LIST_SIZE = 0;
+    private static final CandidateFallback CANDIDATE_FALLBACK = CandidateFallback.FULL_SET;
+    private static final int TARGET_RUNS = 5; // Seeds per configuration in the time-to-target benchmark
+    private static final int STOP_CHECK_INTERVAL = 64; // Placements between two stop checks of an ant, a power of two
     // Paper: 1
     private double ALPHA = 1.0; // Influence of pheromone
     // Paper: 2
     private double BETA = 2.0; // Influence of heuristic information
     // Paper 0.9
     private double q0 = 0.9; // Probability of exploiting the best option
-    private double[][] pheromones; // Pheromones matrix
-    private double[][] heuristic; // Heuristic matrix
+    private int candidateListSize = CANDIDATE_LIST_SIZE;
+    private CandidateFallback candidateFallback = CANDIDATE_FALLBACK;
+    private int maxIterations = MAX_ITERATIONS;
+    private int numberOfAnts = NUMBER_OF_ANTS;
+    private int targetBinCount = 0; // The colony stops as soon as it reaches this many bins, 0 runs all iterations
+    private final int lowerBound; // The colony always stops at the lower bound, the solution is optimal then
+    private SearchControl control = new SearchControl();
+    private int iterationsRun;
+    // Pheromone per (size class, bin) as in Levine & Ducatelle, stored row-major in a float array. Items of the same
+    // size are interchangeable, so memory grows with the number of distinct sizes instead of with numItems squared.
+    private float[] pheromones;
+    private double[] heuristic; // Heuristic value of every item
+    private double[] heuristicWeight; // heuristic^BETA of every item
+    private int[] sizeClassOf; // Size class of every item
+    private int[] classSize; // Item size of every size class, ascending
+    // Items ordered by size class: the items of class c sit in slots classStart[c] .. classStart[c + 1] - 1
+    private int[] classStart;
+    private int[] slotOf;
+    private int[] itemAtSlot;
+    private int numSizeClasses;
+    private int pheromoneBins; // Columns of the pheromone matrix, an upper bound on the bins a First-Fit ant opens
+    private static final double LOCAL_EVAPORATION = 0.1;
     private Random random = new Random();
     private int iterationsWithoutImprovement = 0;
     private int numItems;
@@ -21,24 +55,157 @@ public class AntColonyOptimization {
     private int[] itemSizes;
 
     private int[] bestSolution;
+    private volatile boolean solutionCompleted; // Some ant has completed a solution, so a stop has something to return
     private int bestBinCount = Integer.MAX_VALUE;
-    private boolean[][] precedence;
+    // Precedence DAG in CSR form: the items that must come after item i are successors[successorStart[i]] ..
+    // successors[successorStart[i + 1] - 1]. predecessorCount holds the in-degree of every item.
+    private int[] successorStart;
+    private int[] successors;
+    private int[] predecessorCount;
     private int[] numberOfSuccessors;
+    private double tau0; // Initial pheromone level used by the local update
+    private final Ant ant;
 
     public AntColonyOptimization(int numItems, int binCapacity, int[] itemSizes, boolean[][] precedence) {
+        this(numItems, binCapacity, itemSizes, toEdgeList(precedence));
+    }
+
+    // Main constructor, every precedence edge is a pair {i, j} meaning item i must be placed before item j
+    public AntColonyOptimization(int numItems, int binCapacity, int[] itemSizes, int[][] precedenceEdges) {
         this.numItems = numItems;
         this.binCapacity = binCapacity;
         this.itemSizes = itemSizes;
-        this.pheromones = new double[numItems][numItems];
-        this.heuristic = new double[numItems][numItems];
-        this.precedence = precedence != null ? precedence : new boolean[numItems][numItems]; // Safely initialize
+        initializeSizeClasses();
+        this.pheromones = new float[numSizeClasses * pheromoneBins];
+        initializePrecedence(precedenceEdges != null ? precedenceEdges : new int[0][]); // Safely initialize
+        this.tau0 = 1.0 / (numItems * estimateOfOptimalSolution());
         initializePheromones();
         initializeHeuristic();
+        this.lowerBound = LowerBounds.of(itemSizes, binCapacity);
+        this.ant = new Ant(random, false);
     }
 
     // Alternative constructor if precedence data isn't initially available
     public AntColonyOptimization(int numItems, int binCapacity, int[] itemSizes) {
-        this(numItems, binCapacity, itemSizes, null); // Call the main constructor with null precedence
+        this(numItems, binCapacity, itemSizes, (int[][]) null); // Call the main constructor with null precedence
+    }
+
+    // What an ant does when no ready item fits the current bin in candidate-list mode. FULL_SET scores every ready
+    // item as without a candidate list, LARGEST_FIRST opens the next bin with the best of the largest ready items.
+    public enum CandidateFallback {
+        FULL_SET,
+        LARGEST_FIRST
+    }
+
+    // Restricts every construction step to the k best ready items that fit the current bin, 0 disables the list
+    public void setCandidateList(int size, CandidateFallback fallback) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Candidate list size must not be negative: " + size);
+        }
+        this.candidateListSize = size;
+        this.candidateFallback = fallback;
+    }
+
+    // Stops solve() and solveConcurrently() once control says so, checked between iterations and every
+    // STOP_CHECK_INTERVAL placements of an ant. The ants still constructing are abandoned and the best solution so far
+    // is returned. control also receives every new best solution.
+    public void setSearchControl(SearchControl control) {
+        this.control = control;
+    }
+
+    // The first solution is always completed, so that there is a best solution to return. In solveConcurrently any
+    // ant of the first iteration that completes makes the others stoppable.
+    private boolean stopRequested() {
+        return solutionCompleted && control.shouldStop();
+    }
+
+    private void publishIncumbent() {
+        int[] solution = bestSolution;
+        control.improved(() -> toResult(itemSizes, solution));
+    }
+
+    private static SolverResult toResult(int[] sizes, int[] solution) {
+        int binCount = Arrays.stream(solution).max().orElse(-1) + 1;
+        return SolverResult.fromAssignment(sizes, solution, binCount);
+    }
+
+    // Seeds the random stream of the sequential solve(), solveConcurrently takes its own seed
+    public void setSeed(long seed) {
+        random = new Random(seed);
+        ant.random = random;
+    }
+
+    // Entry point for the batch runner. Config keys: ants, alpha, q0, candidates. The budget is the number of
+    // iterations. The colony runs sequentially, the runner parallelises across jobs.
+    public static Solver solver() {
+        return new Solver() {
+            @Override
+            public String getName() {
+                return "ACO";
+            }
+
+            @Override
+            public SolverResult solve(BppInstance instance, Map<String, String> config, long seed, int budget,
+                                      SearchControl control) {
+                int[] sizes = instance.expand();
+                AntColonyOptimization aco = new AntColonyOptimization(sizes.length, instance.getBinCapacity(), sizes);
+                aco.setSeed(seed);
+                aco.setSearchControl(control);
+                aco.maxIterations = budget > 0 ? budget : MAX_ITERATIONS;
+                aco.numberOfAnts = Solver.intParameter(config, "ants", NUMBER_OF_ANTS);
+                aco.ALPHA = Solver.doubleParameter(config, "alpha", aco.ALPHA);
+                aco.q0 = Solver.doubleParameter(config, "q0", aco.q0);
+                aco.setCandidateList(Solver.intParameter(config, "candidates", CANDIDATE_LIST_SIZE), CANDIDATE_FALLBACK);
+                return toResult(sizes, aco.solve()).withStat("iterations", aco.iterationsRun);
+            }
+
+            @Override
+            public double estimateCost(BppInstance instance, Map<String, String> config, int budget) {
+                return 1e-3 * instance.getItemCount() * (budget > 0 ? budget : MAX_ITERATIONS)
+                        * Solver.intParameter(config, "ants", NUMBER_OF_ANTS);
+            }
+        };
+    }
+
+    // Stops the colony at the end of the first iteration whose best solution uses at most targetBinCount bins
+    public void setTargetBinCount(int targetBinCount) {
+        this.targetBinCount = targetBinCount;
+    }
+
+    private static int[][] toEdgeList(boolean[][] precedence) {
+        if (precedence == null) {
+            return null;
+        }
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < precedence.length; i++) {
+            for (int j = 0; j < precedence[i].length; j++) {
+                if (precedence[i][j]) {
+                    edges.add(new int[]{i, j});
+                }
+            }
+        }
+        return edges.toArray(new int[0][]);
+    }
+
+    // Builds the CSR adjacency lists and in-degrees with a counting sort over the edges
+    private void initializePrecedence(int[][] precedenceEdges) {
+        successorStart = new int[numItems + 1];
+        successors = new int[precedenceEdges.length];
+        predecessorCount = new int[numItems];
+        for (int[] edge : precedenceEdges) {
+            if (edge[0] < 0 || edge[0] >= numItems || edge[1] < 0 || edge[1] >= numItems) {
+                throw new IllegalArgumentException("Precedence edge " + Arrays.toString(edge) + " refers to an unknown item");
+            }
+            successorStart[edge[0] + 1]++;
+            predecessorCount[edge[1]]++;
+        }
+        for (int i = 0; i < numItems; i++) {
+            successorStart[i + 1] += successorStart[i];
+        }
+        int[] next = Arrays.copyOf(successorStart, numItems);
+        for (int[] edge : precedenceEdges) {
+            successors[next[edge[0]]++] = edge[1];
+        }
     }
 
     // Sets the initial values for the pheromones, which represents the attractiveness of placing items next to each other.
@@ -47,62 +214,347 @@ public class AntColonyOptimization {
         double mStar = estimateOfOptimalSolution();
         double scaleFactor = 0.01; // Adjust this factor based on empirical testing
         double initialPheromoneValue = scaleFactor / (numItems * mStar);
+        Arrays.fill(pheromones, (float) initialPheromoneValue);
+    }
+
+    // The initialization report of main. The constructor itself prints nothing, so that batch jobs and benchmarks
+    // keep stdout to themselves.
+    private void printInitialization() {
+        System.out.println("Initialization complete: Pheromones are set with initial value: " + pheromones[0]
+                + " (" + numSizeClasses + " size classes x " + pheromoneBins + " bins)");
+        System.out.println("Heuristic initialized based on item sizes and number of successors.");
+    }
+
+    // Items with the same size share a size class, and so share their pheromone row
+    private void initializeSizeClasses() {
+        int[] distinctSizes = Arrays.stream(itemSizes).distinct().sorted().toArray();
+        classSize = distinctSizes;
+        numSizeClasses = distinctSizes.length;
+        sizeClassOf = new int[numItems];
+        classStart = new int[numSizeClasses + 1];
         for (int i = 0; i < numItems; i++) {
-            for (int j = 0; j < numItems; j++) {
-                pheromones[i][j] = initialPheromoneValue;
-            }
+            sizeClassOf[i] = Arrays.binarySearch(distinctSizes, itemSizes[i]);
+            classStart[sizeClassOf[i] + 1]++;
+        }
+        for (int c = 0; c < numSizeClasses; c++) {
+            classStart[c + 1] += classStart[c];
         }
-        System.out.println("Initialization complete: Pheromones are set with initial value: " + initialPheromoneValue);
+        slotOf = new int[numItems];
+        itemAtSlot = new int[numItems];
+        int[] next = Arrays.copyOf(classStart, numSizeClasses);
+        for (int i = 0; i < numItems; i++) {
+            slotOf[i] = next[sizeClassOf[i]]++;
+            itemAtSlot[slotOf[i]] = i;
+        }
+        // First-Fit never leaves two bins that are both at most half full, so it opens at most 2 * total / capacity + 1
+        // bins whatever order the ant picks the items in
+        long totalSize = Arrays.stream(itemSizes).asLongStream().sum();
+        pheromoneBins = (int) Math.max(1, Math.min(numItems, 2 * totalSize / Math.max(binCapacity, 1) + 1));
     }
 
     // Simulated ant constructing a solution and evaluating it. If the ant finds a better solution, it updates it.
     public int[] solve() {
-        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+        Telemetry telemetry = control.getTelemetry();
+        int[] antBins = new int[numberOfAnts];
+        iterationsRun = 0;
+        for (int iteration = 0; iteration < maxIterations && !targetReached() && !stopRequested(); iteration++) {
+            iterationsRun++;
             boolean improved = false;
-            for (int ant = 0; ant < NUMBER_OF_ANTS; ant++) {
+            int ants = 0;
+            for (int k = 0; k < numberOfAnts && !stopRequested(); k++) {
+                long start = telemetry.start(Telemetry.Operator.CONSTRUCT);
                 int[] solution = constructSolution();
-                int binCount = evaluateSolution(solution);
+                telemetry.stop(Telemetry.Operator.CONSTRUCT, start);
+                if (solution == null) {
+                    return bestSolution; // Stopped during the construction
+                }
+                int binCount = evaluateSolution(ant);
+                antBins[ants++] = binCount;
                 if (binCount < bestBinCount) {
                     bestBinCount = binCount;
                     bestSolution = solution.clone();
                     improved = true;
+                    publishIncumbent();
                 }
             }
+            long start = telemetry.startPhase();
             if (!improved) {
                 iterationsWithoutImprovement = 0;
                 updateGlobalPheromone(bestSolution);
             } else {
                 iterationsWithoutImprovement++;
             }
+            telemetry.stopPhase(Telemetry.Operator.PHEROMONE_UPDATE, start);
+            recordIteration(telemetry, iteration, antBins, ants);
         }
         return bestSolution;
     }
 
+    // Telemetry of one iteration: the best and mean bins of the ants and the number of distinct bin counts among them
+    private void recordIteration(Telemetry telemetry, int iteration, int[] antBins, int ants) {
+        if (!telemetry.isEnabled()) {
+            return;
+        }
+        long total = 0;
+        for (int k = 0; k < ants; k++) {
+            total += antBins[k];
+        }
+        int distinct = (int) Arrays.stream(antBins, 0, ants).distinct().count();
+        telemetry.endGeneration(iteration, bestBinCount, (double) total / Math.max(ants, 1), distinct, ants, ants);
+    }
+
+    // Concurrent variant of solve. The ants of an iteration run in parallel on a fork-join pool against the pheromone
+    // matrix as it was at the start of the iteration. Instead of writing their local updates into the shared matrix,
+    // every ant keeps them as its own delta, and the deltas are merged into the matrix after all ants finished.
+    // Every ant draws from its own SplittableRandom split off the seed in ant order, and both the choice of the best
+    // ant and the merge go in ant order, so a fixed seed gives the same result at any thread count.
+    public int[] solveConcurrently(int threads, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            SplittableRandom seeds = new SplittableRandom(seed);
+            Ant[] ants = new Ant[numberOfAnts];
+            List<Callable<int[]>> constructions = new ArrayList<>();
+            for (int k = 0; k < numberOfAnts; k++) {
+                Ant colonyAnt = new Ant(null, true);
+                ants[k] = colonyAnt;
+                constructions.add(() -> constructSolution(colonyAnt));
+            }
+
+            Telemetry telemetry = control.getTelemetry();
+            int[] antBins = new int[numberOfAnts];
+            iterationsRun = 0;
+            for (int iteration = 0; iteration < maxIterations && !targetReached() && !stopRequested(); iteration++) {
+                iterationsRun++;
+                for (Ant colonyAnt : ants) {
+                    colonyAnt.random = seeds.split();
+                }
+                long start = telemetry.startPhase();
+                List<Future<int[]>> results = pool.invokeAll(constructions);
+                boolean[] completed = new boolean[ants.length];
+                boolean abandoned = false;
+                for (int k = 0; k < ants.length; k++) {
+                    completed[k] = results.get(k).get() != null;
+                    abandoned |= !completed[k];
+                }
+                telemetry.stopPhase(Telemetry.Operator.CONSTRUCT, start);
+
+                boolean improved = false;
+                for (int k = 0; k < ants.length; k++) {
+                    Ant colonyAnt = ants[k];
+                    if (!completed[k]) {
+                        continue;
+                    }
+                    int binCount = evaluateSolution(colonyAnt);
+                    antBins[k] = binCount;
+                    if (binCount < bestBinCount) {
+                        bestBinCount = binCount;
+                        bestSolution = colonyAnt.solution.clone();
+                        improved = true;
+                        publishIncumbent();
+                    }
+                }
+                if (abandoned) {
+                    return bestSolution; // Stopped during the constructions, the unfinished ants are dropped
+                }
+                start = telemetry.startPhase();
+                mergeLocalPheromoneDeltas(ants, pool, threads);
+                if (!improved) {
+                    iterationsWithoutImprovement = 0;
+                    updateGlobalPheromone(bestSolution);
+                } else {
+                    iterationsWithoutImprovement++;
+                }
+                telemetry.stopPhase(Telemetry.Operator.PHEROMONE_UPDATE, start);
+                recordIteration(telemetry, iteration, antBins, ants.length);
+            }
+            return bestSolution;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ant colony was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ant construction failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Applies the local pheromone updates the ants deferred during the iteration. An ant's delta is the number of
+    // local updates it made to every cell. The local update only moves a cell towards tau0, so k updates collapse to
+    // one step with (1 - rho)^k, and the order of the updates does not matter. The counts of all ants are summed per
+    // cell and applied in one step. The size classes are split into stripes that are merged in parallel; a stripe
+    // owns its rows of the matrix, so no locking is needed, and integer sums make the result independent of timing.
+    private void mergeLocalPheromoneDeltas(Ant[] ants, ForkJoinPool pool, int stripes) throws InterruptedException, ExecutionException {
+        int stripeSize = (numSizeClasses + stripes - 1) / stripes;
+        List<Callable<Void>> merges = new ArrayList<>();
+        for (int from = 0; from < numSizeClasses; from += stripeSize) {
+            int start = from * pheromoneBins;
+            int end = Math.min(numSizeClasses, from + stripeSize) * pheromoneBins;
+            merges.add(() -> {
+                for (int cell = start; cell < end; cell++) {
+                    int updates = 0;
+                    for (Ant colonyAnt : ants) {
+                        updates += colonyAnt.localUpdates[cell];
+                    }
+                    if (updates > 0) {
+                        pheromones[cell] = (float) locallyUpdated(pheromones[cell], updates);
+                    }
+                }
+                return null;
+            });
+        }
+        for (Future<Void> merge : pool.invokeAll(merges)) {
+            merge.get();
+        }
+    }
+
+    private boolean targetReached() {
+        return bestBinCount <= Math.max(targetBinCount, lowerBound);
+    }
+
+    int[] constructSolution() {
+        return constructSolution(ant);
+    }
+
     // Constructs the solution for one ant. Repeated selects the next best item to place based on pheronome levels, heuristic values, and item precedence, ensuring
     // items are placed in feasable bins according to capacity
-    private int[] constructSolution() {
-        int[] solution = new int[numItems];
-        Arrays.fill(solution, -1);
-        List<Integer> unassignedItems = IntStream.range(0, numItems).boxed().collect(Collectors.toList());
+    // The returned array belongs to the ant and is overwritten by the next construction. The stop signal is checked
+    // every STOP_CHECK_INTERVAL placements, and an ant that is stopped halfway returns null instead of a partial solution.
+    private int[] constructSolution(Ant ant) {
+        ant.reset();
 
         int currentBin = 0;
-        while (!unassignedItems.isEmpty()) {
-            int item = selectNextItem(solution, unassignedItems, currentBin);
+        while (ant.unassignedCount > 0) {
+            if ((ant.unassignedCount & (STOP_CHECK_INTERVAL - 1)) == 0 && stopRequested()) {
+                return null;
+            }
+            int item = candidateListSize > 0 ? selectCandidate(ant, currentBin) : selectNextItem(ant, currentBin);
             if (item == -1) break; // No valid item could be placed, exit loop
-            int bin = findBin(solution, item); // Method to find a suitable bin
-            if (bin != -1) {
-                solution[item] = bin;
-                updateLocalPheromone(item, bin);  // Update local pheromone after placing item
-                unassignedItems.remove(Integer.valueOf(item));
+            int bin = findBin(ant, item); // Method to find a suitable bin
+            if (bin == -1) break; // The item is larger than a bin and can never be placed
+            ant.place(item, bin);
+            updateLocalPheromone(ant, item, bin);  // Update local pheromone after placing item
+            if (bin <= ant.scoredBin) {
+                ant.scorePheromone(sizeClassOf[item]);
             }
         }
-        return solution;
+        solutionCompleted = true;
+        return ant.solution;
     }
 
-    private void updateLocalPheromone(int i, int j) {
-        double rho1 = 0.1; // Local evaporation rate
-        double tau0 = 1.0 / (numItems * estimateOfOptimalSolution()); // Initial pheromone level
-        pheromones[i][j] = (1 - rho1) * pheromones[i][j] + rho1 * tau0;
+    // State of one ant while it builds a solution. Bin loads live in a packing engine, which doubles as the index of
+    // open bins for First-Fit. Every item counts its predecessors that are still unplaced, and the items whose count
+    // is zero form the ready set. Placing an item only touches its own successors.
+    // The ready set lives in two score trees: itemScores holds heuristic^BETA of every ready item (0 for the others)
+    // in size class order, and classScores holds, per size class, pheromoneWeight times the class's total and best
+    // item score. Placing an item or a local pheromone update changes one leaf of each tree.
+    // An ant that defers its local updates leaves the pheromone matrix untouched and counts its updates per cell
+    // instead, and reads the matrix as if its own updates had been applied.
+    private class Ant {
+        RandomGenerator random;
+        final boolean defersLocalUpdates;
+        final int[] localUpdates;
+        final int[] solution = new int[numItems];
+        final PackingEngine packer = new PackingEngine();
+        final int[] remainingPredecessors = new int[numItems];
+        final ScoreTree itemScores = new ScoreTree(numItems);
+        final ScoreTree classScores = new ScoreTree(numSizeClasses);
+        final double[] pheromoneWeight = new double[numSizeClasses]; // pheromoneSum^ALPHA per class for scoredBin
+        int scoredBin;
+        int readyCount;
+        int unassignedCount;
+        int[] candidates = new int[0];
+        double[] candidateScores = new double[0];
+
+        Ant(RandomGenerator random, boolean defersLocalUpdates) {
+            this.random = random;
+            this.defersLocalUpdates = defersLocalUpdates;
+            this.localUpdates = defersLocalUpdates ? new int[pheromones.length] : null;
+        }
+
+        void reset() {
+            Arrays.fill(solution, -1);
+            if (defersLocalUpdates) {
+                Arrays.fill(localUpdates, 0);
+            }
+            packer.reset(binCapacity, pheromoneBins);
+            System.arraycopy(predecessorCount, 0, remainingPredecessors, 0, numItems);
+            readyCount = 0;
+            for (int item = 0; item < numItems; item++) {
+                boolean ready = remainingPredecessors[item] == 0;
+                itemScores.setQuietly(slotOf[item], ready ? heuristicWeight[item] : 0);
+                readyCount += ready ? 1 : 0;
+            }
+            itemScores.rebuild();
+            unassignedCount = numItems;
+            scorePheromones(0);
+        }
+
+        // Recomputes the pheromone part of every class for a new current bin
+        void scorePheromones(int currentBin) {
+            scoredBin = currentBin;
+            for (int c = 0; c < numSizeClasses; c++) {
+                int item = itemAtSlot[classStart[c]];
+                pheromoneWeight[c] = Math.pow(calculatePheromoneSumUpToBin(this, item, currentBin), ALPHA);
+                classScores.setQuietly(c, 0);
+            }
+            classScores.rebuild();
+            for (int c = 0; c < numSizeClasses; c++) {
+                updateClassScore(c);
+            }
+        }
+
+        void scorePheromone(int sizeClass) {
+            int item = itemAtSlot[classStart[sizeClass]];
+            pheromoneWeight[sizeClass] = Math.pow(calculatePheromoneSumUpToBin(this, item, scoredBin), ALPHA);
+            updateClassScore(sizeClass);
+        }
+
+        private void updateClassScore(int sizeClass) {
+            int from = classStart[sizeClass];
+            int to = classStart[sizeClass + 1];
+            classScores.set(sizeClass, pheromoneWeight[sizeClass] * itemScores.rangeSum(from, to),
+                    pheromoneWeight[sizeClass] * itemScores.rangeMax(from, to));
+        }
+
+        void place(int item, int bin) {
+            solution[item] = bin;
+            unassignedCount--;
+            readyCount--;
+            itemScores.set(slotOf[item], 0);
+            updateClassScore(sizeClassOf[item]);
+            for (int e = successorStart[item]; e < successorStart[item + 1]; e++) {
+                int successor = successors[e];
+                if (--remainingPredecessors[successor] == 0) {
+                    readyCount++;
+                    itemScores.set(slotOf[successor], heuristicWeight[successor]);
+                    updateClassScore(sizeClassOf[successor]);
+                }
+            }
+        }
+    }
+
+    private void updateLocalPheromone(Ant ant, int item, int bin) {
+        int cell = sizeClassOf[item] * pheromoneBins + bin;
+        if (ant.defersLocalUpdates) {
+            ant.localUpdates[cell]++;
+        } else {
+            pheromones[cell] = (float) locallyUpdated(pheromones[cell], 1);
+        }
+    }
+
+    // Pheromone after the given number of local updates: each one is (1 - rho1) * tau + rho1 * tau0
+    private double locallyUpdated(double pheromone, int updates) {
+        double rho1 = LOCAL_EVAPORATION; // Local evaporation rate
+        double remaining = updates == 1 ? 1 - rho1 : Math.pow(1 - rho1, updates);
+        return remaining * pheromone + (1 - remaining) * tau0;
+    }
+
+    // Pheromone of a cell as the ant sees it
+    private double pheromoneAt(Ant ant, int cell) {
+        if (ant.defersLocalUpdates && ant.localUpdates[cell] > 0) {
+            return locallyUpdated(pheromones[cell], ant.localUpdates[cell]);
+        }
+        return pheromones[cell];
     }
 
     private void updateGlobalPheromone(int[] bestSolution) {
@@ -112,7 +564,8 @@ public class AntColonyOptimization {
         for (int i = 0; i < numItems; i++) {
             int j = bestSolution[i]; // bestSolution[i] gives the bin in which item i is placed
             if (j != -1) { // Check if the item was placed
-                pheromones[i][j] = (1 - rho2) * pheromones[i][j] + rho2 * deltaTau;
+                int cell = sizeClassOf[i] * pheromoneBins + j;
+                pheromones[cell] = (float) ((1 - rho2) * pheromones[cell] + rho2 * deltaTau);
             }
         }
     }
@@ -123,99 +576,142 @@ public class AntColonyOptimization {
     }
 
     // Selects the next item to place in the bin packing sequence based on the calculated probability or both
-    // phereomone and heuristic values, by applying a roulette wheel selection mechanism
-    private int selectNextItem(int[] solution, List<Integer> unassignedItems, int currentBin) {
-        // List to hold items that meet precedence constraints and are therefore eligible for selection.
-        List<Integer> eligibleItems = unassignedItems.stream()
-                .filter(item -> allPredecessorsPlaced(solution, item))
-                .collect(Collectors.toList());
-
-        if (eligibleItems.isEmpty()) {
+    // phereomone and heuristic values, by applying a roulette wheel selection mechanism.
+    // The score of an item is pheromoneSum^ALPHA * heuristic^BETA. The first factor only depends on the size class and
+    // the second only on the item, so the ant keeps the heuristic part per item and the pheromone part per class in
+    // two score trees (see Ant), and both the argmax and the roulette wheel are O(log n) descents that allocate nothing.
+    private int selectNextItem(Ant ant, int currentBin) {
+        if (ant.readyCount == 0) {
             return -1; // No eligible items left to place.
         }
-
-        // This map will store each item and its calculated probability score.
-        Map<Integer, Double> itemProbabilities = new HashMap<>();
-        double totalProbability = 0.0;
-
-        // Calculate the score for each eligible item.
-        for (Integer item : eligibleItems) {
-            double pheromoneSum = calculatePheromoneSumUpToBin(item, currentBin); // Sum of pheromones up to the current bin.
-            double heuristicValue = calculateHeuristicValue(item); // Calculate heuristic value based on the item and its successors.
-
-            // Calculate probability using both pheromone and heuristic values.
-            double probability = Math.pow(pheromoneSum, ALPHA) * Math.pow(heuristicValue, BETA);
-            itemProbabilities.put(item, probability);
-            totalProbability += probability;
+        if (currentBin != ant.scoredBin) {
+            ant.scorePheromones(currentBin);
         }
 
         // Check if we should exploit or explore based on the value of q0.
-        if (random.nextDouble() < q0) {
+        double totalProbability = ant.classScores.total();
+        if (ant.random.nextDouble() < q0 || !(totalProbability > 0)) {
             // Exploitation: choose the item with the highest probability.
-            return Collections.max(itemProbabilities.entrySet(), Comparator.comparingDouble(Map.Entry::getValue)).getKey();
+            int sizeClass = ant.classScores.argmax();
+            return itemAtSlot[ant.itemScores.argmax(classStart[sizeClass], classStart[sizeClass + 1])];
         } else {
-            // Exploration: choose an item based on a roulette wheel selection.
-            double randomThreshold = random.nextDouble() * totalProbability;
-            double cumulativeProbability = 0.0;
-
-            for (Map.Entry<Integer, Double> entry : itemProbabilities.entrySet()) {
-                cumulativeProbability += entry.getValue();
-                if (cumulativeProbability >= randomThreshold) {
-                    return entry.getKey();
-                }
+            // Exploration: choose an item based on a roulette wheel selection. The threshold first picks a size class
+            // by its total score and the remainder picks the item inside the class.
+            double randomThreshold = ant.random.nextDouble() * totalProbability;
+            int sizeClass = ant.classScores.sample(randomThreshold);
+            int from = classStart[sizeClass];
+            int to = classStart[sizeClass + 1];
+            double remainder = (randomThreshold - ant.classScores.rangeSum(0, sizeClass)) / ant.pheromoneWeight[sizeClass];
+            int slot = ant.itemScores.sample(ant.itemScores.rangeSum(0, from) + Math.max(remainder, 0));
+            if (slot < from || slot >= to || ant.itemScores.weight(slot) == 0) {
+                slot = ant.itemScores.argmax(from, to); // Rounding pushed the threshold out of the class
+            }
+            return itemAtSlot[slot];
+        }
+    }
+
+    // Candidate-list variant of selectNextItem. The candidates are the candidateListSize best ready items whose size
+    // fits the residual capacity of the most recently opened bin, ranked by the same score. They are taken from the
+    // score trees by repeatedly removing the argmax of the classes that fit and putting the items back afterwards.
+    // The ant exploits the best candidate with probability q0, which is a single O(log n) argmax, and otherwise spins
+    // the roulette wheel over the k candidates only, which costs O(k log n). Only when nothing fits the current bin
+    // does the fallback policy look past the list.
+    private int selectCandidate(Ant ant, int currentBin) {
+        if (ant.readyCount == 0) {
+            return -1; // No eligible items left to place.
+        }
+        if (currentBin != ant.scoredBin) {
+            ant.scorePheromones(currentBin);
+        }
+        int openBins = ant.packer.getBinCount();
+        int residual = openBins > 0 ? binCapacity - ant.packer.getLoad(openBins - 1) : binCapacity;
+        int fittingClasses = upperBoundOfSize(residual);
+        if (fittingClasses == 0 || !(ant.classScores.rangeMax(0, fittingClasses) > 0)) {
+            return candidateFallback == CandidateFallback.FULL_SET ? selectNextItem(ant, currentBin) : largestReadyItem(ant);
+        }
+        if (ant.random.nextDouble() < q0) {
+            int sizeClass = ant.classScores.argmax(0, fittingClasses);
+            return itemAtSlot[ant.itemScores.argmax(classStart[sizeClass], classStart[sizeClass + 1])];
+        }
+
+        if (ant.candidates.length < candidateListSize) {
+            ant.candidates = new int[candidateListSize];
+            ant.candidateScores = new double[candidateListSize];
+        }
+        int count = 0;
+        double totalScore = 0;
+        while (count < candidateListSize && ant.classScores.rangeMax(0, fittingClasses) > 0) {
+            int sizeClass = ant.classScores.argmax(0, fittingClasses);
+            int slot = ant.itemScores.argmax(classStart[sizeClass], classStart[sizeClass + 1]);
+            int item = itemAtSlot[slot];
+            ant.candidates[count] = item;
+            ant.candidateScores[count] = ant.pheromoneWeight[sizeClass] * heuristicWeight[item];
+            totalScore += ant.candidateScores[count++];
+            ant.itemScores.set(slot, 0);
+            ant.updateClassScore(sizeClass);
+        }
+        for (int i = 0; i < count; i++) {
+            int item = ant.candidates[i];
+            ant.itemScores.set(slotOf[item], heuristicWeight[item]);
+            ant.updateClassScore(sizeClassOf[item]);
+        }
+
+        double randomThreshold = ant.random.nextDouble() * totalScore;
+        for (int i = 0; i < count - 1; i++) {
+            randomThreshold -= ant.candidateScores[i];
+            if (randomThreshold < 0) {
+                return ant.candidates[i];
             }
         }
+        return ant.candidates[count - 1];
+    }
+
+    // Number of size classes whose size is at most the given residual capacity
+    private int upperBoundOfSize(int residual) {
+        int index = Arrays.binarySearch(classSize, residual);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
 
-        return -1; // Fallback in case something goes wrong, should not be reached.
+    // Best scoring ready item of the largest size class that still has ready items
+    private int largestReadyItem(Ant ant) {
+        for (int sizeClass = numSizeClasses - 1; sizeClass >= 0; sizeClass--) {
+            int from = classStart[sizeClass];
+            int to = classStart[sizeClass + 1];
+            if (ant.itemScores.rangeMax(from, to) > 0) {
+                return itemAtSlot[ant.itemScores.argmax(from, to)];
+            }
+        }
+        return selectNextItem(ant, ant.scoredBin); // Only ready items with a zero score are left
     }
 
     // Calculate the cumulative pheromone sum for an item up to the specified bin.
-    private double calculatePheromoneSumUpToBin(int item, int currentBin) {
+    private double calculatePheromoneSumUpToBin(Ant ant, int item, int currentBin) {
         double sum = 0.0;
+        int row = sizeClassOf[item] * pheromoneBins;
         for (int bin = 0; bin <= currentBin; bin++) {
-            sum += pheromones[item][bin];
+            sum += pheromoneAt(ant, row + bin);
         }
         return sum;
     }
 
     // Calculate the heuristic value for an item, considering its size, number of successors
     private double calculateHeuristicValue(int item) {
-        return 1.0 / (itemSizes[item] + numberOfSuccessors[item] * 0.1);
-    }
-
-    // Checks if an item can be placed in any bin based on precedence constraints
-    private boolean canPlaceItem(int[] solution, int item) {
-        return allPredecessorsPlaced(solution, item);
+        return heuristic[item];
     }
 
-    // Checks if predessors of a given item has been placed
-    private boolean allPredecessorsPlaced(int[] solution, int item) {
-        for (int i = 0; i < numItems; i++) {
-            if (precedence[i][item] && solution[i] == -1) {
-                return false; // Predecessor `i` is not placed yet
-            }
+    // Checks if item can be placed to make sure its not over 10k, the packing engine tracks the load of every bin
+    // of the ant's partial solution and returns the first bin with enough room
+    private int findBin(Ant ant, int item) {
+        if (itemSizes[item] > binCapacity) {
+            return -1; // Return -1 if no valid bin is found
         }
-        return true; // All predecessors are placed
-    }
-
-    // Checks if item can be placed to make sure its not over 10k
-    private int findBin(int[] solution, int item) {
-        for (int bin = 0; bin < numItems; bin++) {
-            if (canPlaceItemInBin(solution, bin, item)) {
-                return bin;
-            }
-        }
-        return -1; // Return -1 if no valid bin is found
+        return ant.packer.firstFit(itemSizes[item]);
     }
 
     private void calculateNumberOfSuccessors() {
         numberOfSuccessors = new int[numItems];
         for (int i = 0; i < numItems; i++) {
-            for (int j = 0; j < numItems; j++) {
-                if (precedence[i][j]) {  // If item i must precede item j
-                    numberOfSuccessors[i]++;
-                }
-            }
+            numberOfSuccessors[i] = successorStart[i + 1] - successorStart[i]; // Items that item i must precede
         }
     }
 
@@ -224,66 +720,121 @@ public class AntColonyOptimization {
     private void initializeHeuristic() {
         calculateNumberOfSuccessors();
 
-        heuristic = new double[numItems][numItems];
-        for (int i = 0; i < numItems; i++) {
-            for (int j = 0; j < numItems; j++) {
-                    heuristic[i][j] = 1.0 / (itemSizes[i] + numberOfSuccessors[i] * 0.1);
-            }
-        }
-        System.out.println("Heuristic initialized based on item sizes and number of successors.");
-    }
-
-    private boolean canPlaceItemInBin(int[] solution, int bin, int item) {
-        int currentLoad = 0;
+        heuristic = new double[numItems];
+        heuristicWeight = new double[numItems];
         for (int i = 0; i < numItems; i++) {
-            if (solution[i] == bin) {
-                currentLoad += itemSizes[i];
-            }
+            heuristic[i] = 1.0 / (itemSizes[i] + numberOfSuccessors[i] * 0.1);
+            heuristicWeight[i] = Math.pow(calculateHeuristicValue(i), BETA);
         }
-        return currentLoad + itemSizes[item] <= binCapacity;
     }
 
-    private int evaluateSolution(int[] solution) {
-        return (int) Arrays.stream(solution).distinct().count();
+    // Number of bins the ant opened. Items it could not place count as one more bin, like the -1 marker they carry.
+    private int evaluateSolution(Ant ant) {
+        return ant.packer.getBinCount() + (ant.unassignedCount > 0 ? 1 : 0);
     }
 
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         String fileName = "Ant Colony Optimization/BPP.txt";
-        File file = new File(fileName);
-        Scanner scanner = new Scanner(file);
-
-        while (scanner.hasNextLine()) {
-            long startTime = System.currentTimeMillis(); // Start time before the solution process
-
-            String testName = scanner.nextLine().trim();
-            int numberOfItems = Integer.parseInt(scanner.nextLine().trim());
-            int binCapacity = Integer.parseInt(scanner.nextLine().trim());
-
-            List<Integer> itemSizesList = new ArrayList<>();
-            for (int i = 0; i < numberOfItems; i++) {
-                String line = scanner.nextLine().trim();
-                String[] parts = line.split("\\s+");
-                int size = Integer.parseInt(parts[0]);  // Item size
-                int count = Integer.parseInt(parts[1]);  // Number of such items
-                for (int j = 0; j < count; j++) {
-                    itemSizesList.add(size);
+        // "--scaling" prints the iteration throughput of the concurrent colony per number of threads instead of solving
+        boolean scalingReport = args.length > 0 && args[0].equals("--scaling");
+        // "--time-to-target [k]" compares the time the full scan and a candidate list of size k (default 10) need to
+        // reach the lower bound, or the fewest bins any run reaches if the bound is out of reach
+        boolean targetReport = args.length > 0 && args[0].equals("--time-to-target");
+        int targetCandidates = targetReport && args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        try (BppReader reader = new BppReader(Path.of(fileName))) {
+            while (reader.hasNext()) {
+                long startTime = System.currentTimeMillis(); // Start time before the solution process
+
+                BppInstance instance = reader.next();
+                String testName = instance.getName();
+                int binCapacity = instance.getBinCapacity();
+                int[] itemSizes = instance.expand();
+                if (scalingReport) {
+                    printScalingReport(testName, itemSizes, binCapacity);
+                    continue;
+                }
+                if (targetReport) {
+                    printTimeToTargetReport(testName, itemSizes, binCapacity, targetCandidates);
+                    continue;
                 }
+                AntColonyOptimization aco = new AntColonyOptimization(itemSizes.length, binCapacity, itemSizes);
+                aco.printInitialization();
+                int[] solution = CONCURRENT_COLONY ? aco.solveConcurrently(THREADS, SEED) : aco.solve();
+
+                long endTime = System.currentTimeMillis(); // End time after the solution process
+
+                System.out.println("Best solution for '" + testName + "' uses " + aco.bestBinCount + " bins"
+                        + (aco.bestBinCount == aco.lowerBound ? " (proven optimal)." : "."));
+                System.out.println("Begin test for BIN '" + testName + "':");
+                printSolution(solution, aco.itemSizes, aco.binCapacity);
+                System.out.println("Total weight in bins for '" + testName + "': " + getTotalWeight(solution, aco.itemSizes));
+                System.out.println("Total weight of all items in '" + testName + "': " + Arrays.stream(aco.itemSizes).sum());
+                System.out.println("Execution Time: " + (endTime - startTime) / 1000.0 + " seconds");
             }
+        }
+    }
 
-            int[] itemSizes = itemSizesList.stream().mapToInt(i -> i).toArray();
+    // Solves the instance with the concurrent colony on 1, 2, 4, ... threads from the same seed and prints the
+    // iterations per second of each. The bin count is printed as well, it has to be identical on every line.
+    private static void printScalingReport(String testName, int[] itemSizes, int binCapacity) {
+        new AntColonyOptimization(itemSizes.length, binCapacity, itemSizes).solveConcurrently(THREADS, SEED); // JIT warm-up
+        System.out.println("Colony scaling for '" + testName + "' (" + itemSizes.length + " items, " + MAX_ITERATIONS
+                + " iterations of " + NUMBER_OF_ANTS + " ants)");
+        for (int threads = 1; threads <= THREADS; threads = threads < THREADS ? Math.min(threads * 2, THREADS) : threads + 1) {
             AntColonyOptimization aco = new AntColonyOptimization(itemSizes.length, binCapacity, itemSizes);
-            int[] solution = aco.solve();
-
-            long endTime = System.currentTimeMillis(); // End time after the solution process
+            long start = System.nanoTime();
+            aco.solveConcurrently(threads, SEED);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Threads: %2d, Iterations/sec: %8.2f, Bins: %d%n", threads, MAX_ITERATIONS / seconds, aco.bestBinCount);
+        }
+    }
 
-            System.out.println("Best solution for '" + testName + "' uses " + aco.bestBinCount + " bins.");
-            System.out.println("Begin test for BIN '" + testName + "':");
-            printSolution(solution, aco.itemSizes, aco.binCapacity);
-            System.out.println("Total weight in bins for '" + testName + "': " + getTotalWeight(solution, aco.itemSizes));
-            System.out.println("Total weight of all items in '" + testName + "': " + Arrays.stream(aco.itemSizes).sum());
-            System.out.println("Execution Time: " + (endTime - startTime) / 1000.0 + " seconds");
+    // Time-to-target of the full scan against a candidate list, on the instance itself and on ten copies of it to show
+    // how the two scale with the number of items. Every configuration runs TARGET_RUNS seeds. The target is the
+    // ceil(total / capacity) bound, or the fewest bins any run of either mode reaches within MAX_ITERATIONS if the
+    // bound is out of reach. A run that misses the target counts with its full time.
+    private static void printTimeToTargetReport(String testName, int[] itemSizes, int binCapacity, int candidates) {
+        for (int copies : new int[]{1, 10}) {
+            int[] sizes = new int[itemSizes.length * copies];
+            for (int c = 0; c < copies; c++) {
+                System.arraycopy(itemSizes, 0, sizes, c * itemSizes.length, itemSizes.length);
+            }
+            AntColonyOptimization probe = new AntColonyOptimization(sizes.length, binCapacity, sizes);
+            int bound = (int) probe.estimateOfOptimalSolution();
+            int target = Integer.MAX_VALUE;
+            for (int k : new int[]{0, candidates}) {
+                for (long seed = SEED; seed < SEED + TARGET_RUNS; seed++) {
+                    target = (int) Math.min(target, timeToTarget(sizes, binCapacity, k, bound, seed)[1]);
+                }
+            }
+            System.out.println("Time to target for '" + testName + "' x" + copies + " (" + sizes.length
+                    + " items, target " + target + " bins, " + TARGET_RUNS + " seeds)");
+            for (int k : new int[]{0, candidates}) {
+                long totalNanos = 0;
+                int totalIterations = 0;
+                int reached = 0;
+                for (long seed = SEED; seed < SEED + TARGET_RUNS; seed++) {
+                    long[] run = timeToTarget(sizes, binCapacity, k, target, seed);
+                    totalNanos += run[0];
+                    totalIterations += (int) run[2];
+                    reached += run[1] <= target ? 1 : 0;
+                }
+                System.out.printf("%-16s Reached: %d/%d, Mean time: %8.2f ms, Mean iterations: %5.1f%n",
+                        k == 0 ? "Full scan:" : "Candidates " + k + ":", reached, TARGET_RUNS,
+                        totalNanos / 1e6 / TARGET_RUNS, (double) totalIterations / TARGET_RUNS);
+            }
         }
-        scanner.close();
+    }
+
+    // Runs one colony and returns {nanoseconds, best bin count, iterations}
+    private static long[] timeToTarget(int[] sizes, int binCapacity, int candidates, int target, long seed) {
+        AntColonyOptimization aco = new AntColonyOptimization(sizes.length, binCapacity, sizes);
+        aco.setCandidateList(candidates, CANDIDATE_FALLBACK);
+        aco.setTargetBinCount(target);
+        long start = System.nanoTime();
+        aco.solveConcurrently(THREADS, seed);
+        return new long[]{System.nanoTime() - start, aco.bestBinCount, aco.iterationsRun};
     }
 
     private static void printSolution(int[] solution, int[] itemSizes, int binCapacity) {
@@ -0,0 +1,129 @@
+// Complete binary tree over primitive leaf weights with O(log n) point updates, weighted sampling and argmax.
+// Every leaf carries two weights: the one that is summed for roulette-wheel sampling and the one that is maximised
+// for argmax. For a single item both are its score; a leaf that stands for a group of items is sampled by the
+// group's total score and exploited by the score of its best member.
+public class ScoreTree {
+    private final int size;
+    private final int base;     // Index of the first leaf, a power of two >= size
+    private final double[] sum;
+    private final double[] max;
+
+    public ScoreTree(int size) {
+        this.size = size;
+        this.base = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        this.sum = new double[2 * base];
+        this.max = new double[2 * base];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void set(int leaf, double weight) {
+        set(leaf, weight, weight);
+    }
+
+    public void set(int leaf, double weight, double maxWeight) {
+        int node = base + leaf;
+        sum[node] = weight;
+        max[node] = maxWeight;
+        for (node >>= 1; node >= 1; node >>= 1) {
+            sum[node] = sum[2 * node] + sum[2 * node + 1];
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+    }
+
+    // Sets a leaf without updating its ancestors; call rebuild() once all leaves are set
+    public void setQuietly(int leaf, double weight) {
+        sum[base + leaf] = weight;
+        max[base + leaf] = weight;
+    }
+
+    // Recomputes every inner node in O(n)
+    public void rebuild() {
+        for (int node = base - 1; node >= 1; node--) {
+            sum[node] = sum[2 * node] + sum[2 * node + 1];
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+    }
+
+    public double weight(int leaf) {
+        return sum[base + leaf];
+    }
+
+    public double total() {
+        return sum[1];
+    }
+
+    // Sum of the weights of the leaves in [from, to)
+    public double rangeSum(int from, int to) {
+        double result = 0;
+        for (int lo = from + base, hi = to + base; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                result += sum[lo++];
+            }
+            if ((hi & 1) == 1) {
+                result += sum[--hi];
+            }
+        }
+        return result;
+    }
+
+    // Largest max weight of the leaves in [from, to), 0 for an empty range
+    public double rangeMax(int from, int to) {
+        double result = 0;
+        for (int lo = from + base, hi = to + base; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                result = Math.max(result, max[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                result = Math.max(result, max[--hi]);
+            }
+        }
+        return result;
+    }
+
+    // Leaf whose cumulative weight interval contains target, for a target in [0, total())
+    public int sample(double target) {
+        int node = 1;
+        while (node < base) {
+            if (target < sum[2 * node]) {
+                node = 2 * node;
+            } else {
+                target -= sum[2 * node];
+                node = 2 * node + 1;
+            }
+        }
+        // Rounding can push a target at the very end of the range onto the padding
+        return Math.min(node - base, size - 1);
+    }
+
+    // Leftmost leaf with the largest max weight
+    public int argmax() {
+        int node = 1;
+        while (node < base) {
+            node = max[2 * node] >= max[2 * node + 1] ? 2 * node : 2 * node + 1;
+        }
+        return node - base;
+    }
+
+    // Leftmost leaf in [from, to) with the largest max weight of that range, or -1 for an empty range
+    public int argmax(int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        return firstLeafWithMax(1, 0, base, from, to, rangeMax(from, to));
+    }
+
+    private int firstLeafWithMax(int node, int nodeFrom, int nodeTo, int from, int to, double target) {
+        if (nodeTo <= from || nodeFrom >= to || max[node] < target) {
+            return -1;
+        }
+        if (node >= base) {
+            return node - base;
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        int leaf = firstLeafWithMax(2 * node, nodeFrom, middle, from, to, target);
+        return leaf != -1 ? leaf : firstLeafWithMax(2 * node + 1, middle, nodeTo, from, to, target);
+    }
+}
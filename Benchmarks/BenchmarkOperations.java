@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+// Operations of the microbenchmarks of the hot operators of the four algorithms, without the parsing and console
+// output that the timings in the mains include. The measurement itself is done by JMH, see bench.OperatorBenchmarks,
+// which has one @Benchmark method per entry of BENCHMARKS and runs it on every bundled instance and on its scale-ups,
+// where scale k repeats every item k times.
+// Inputs that an operation modifies are restored from a copy before every call, the copy is part of the measured time.
+public class BenchmarkOperations {
+    private static final String INSTANCES_FILE = "Genetic Algorithm/BPP.txt";
+    private static final int POPULATION = 4; // Parents for the GA operators
+
+    private interface Benchmark {
+        // Prepares the inputs for one instance and returns the measured operation
+        LongSupplier setUp(BppInstance instance, SplittableRandom random);
+    }
+
+    private static final Map<String, Benchmark> BENCHMARKS = new LinkedHashMap<>();
+
+    static {
+        BENCHMARKS.put("GA.applyFirstFit", (instance, random) -> {
+            int[] sizes = instance.expand();
+            int[] order = shuffledOrder(sizes.length, random);
+            GeneticAlgorithm.Workspace workspace = new GeneticAlgorithm.Workspace();
+            return () -> GeneticAlgorithm.applyFirstFit(order, sizes, instance.getBinCapacity(), workspace).binCount;
+        });
+        BENCHMARKS.put("GA.crossover", (instance, random) -> {
+            int[] sizes = instance.expand();
+            List<GeneticAlgorithm.Individual> parents = parents(sizes, instance.getBinCapacity(), random);
+            GeneticAlgorithm.Workspace workspace = new GeneticAlgorithm.Workspace();
+            return () -> GeneticAlgorithm.crossover(parents.get(0), parents.get(1), sizes, instance.getBinCapacity(),
+                    random, workspace).binCount;
+        });
+        BENCHMARKS.put("GA.mutate", (instance, random) -> {
+            int[] sizes = instance.expand();
+            GeneticAlgorithm.Individual original = parents(sizes, instance.getBinCapacity(), random).get(0);
+            GeneticAlgorithm.Individual individual = new GeneticAlgorithm.Individual(sizes.length);
+            GeneticAlgorithm.Workspace workspace = new GeneticAlgorithm.Workspace();
+            return () -> {
+                individual.copyFrom(original);
+                GeneticAlgorithm.mutate(individual, sizes, instance.getBinCapacity(), random, workspace);
+                return individual.binCount;
+            };
+        });
+        BENCHMARKS.put("GA.optimizeBinFilling", (instance, random) -> {
+            int[] sizes = instance.expand();
+            GeneticAlgorithm.Workspace workspace = new GeneticAlgorithm.Workspace();
+            // A plain First-Fit packing, which leaves the replacement search something to do
+            GeneticAlgorithm.Individual original = GeneticAlgorithm.applyFirstFit(shuffledOrder(sizes.length, random),
+                    sizes, instance.getBinCapacity(), workspace);
+            GeneticAlgorithm.Individual individual = new GeneticAlgorithm.Individual(sizes.length);
+            return () -> {
+                individual.copyFrom(original);
+                GeneticAlgorithm.optimizeBinFilling(individual, sizes, instance.getBinCapacity(), workspace);
+                return individual.binCount;
+            };
+        });
+        // calculateWaste became the First-Fit decode of CSGA, measured here as a full decode without checkpoint reuse
+        BENCHMARKS.put("CSGA.decode", (instance, random) -> {
+            int[] sizes = instance.expand();
+            CuckooSearchGeneticAlgorithm csga = new CuckooSearchGeneticAlgorithm(instance.getBinCapacity(),
+                    Arrays.stream(sizes).boxed().toList(), 1, 0, new Random(random.nextLong()));
+            int[] nest = shuffledWeights(sizes, random);
+            return () -> csga.decode(nest, null, 0).totalWaste;
+        });
+        // Incremental decode of a child that differs from its parent from a random position on, as after a crossover
+        BENCHMARKS.put("CSGA.decodeChild", (instance, random) -> {
+            int[] sizes = instance.expand();
+            CuckooSearchGeneticAlgorithm csga = new CuckooSearchGeneticAlgorithm(instance.getBinCapacity(),
+                    Arrays.stream(sizes).boxed().toList(), 1, 0, new Random(random.nextLong()));
+            int[] parent = shuffledWeights(sizes, random);
+            CuckooSearchGeneticAlgorithm.DecodeCheckpoints checkpoints = csga.decode(parent, null, 0);
+            int[][] children = new int[16][];
+            int[] changedFrom = new int[children.length];
+            for (int k = 0; k < children.length; k++) {
+                children[k] = parent.clone();
+                int first = random.nextInt(sizes.length);
+                int second = random.nextInt(sizes.length);
+                int tmp = children[k][first];
+                children[k][first] = children[k][second];
+                children[k][second] = tmp;
+                changedFrom[k] = Math.min(first, second);
+            }
+            int[] next = {0};
+            return () -> {
+                int k = next[0]++ & (children.length - 1);
+                return csga.decode(children[k], checkpoints, changedFrom[k]).totalWaste;
+            };
+        });
+        BENCHMARKS.put("HFA.evaluate", (instance, random) -> {
+            int[] sizes = instance.expand();
+            HybridFireflyAlgorithm hfa = firefly(instance, sizes, random);
+            int[] swarm = shuffledWeights(sizes, random);
+            return () -> hfa.evaluate(swarm, 0);
+        });
+        BENCHMARKS.put("HFA.evaluateKeys", (instance, random) -> {
+            int[] sizes = instance.expand();
+            HybridFireflyAlgorithm hfa = firefly(instance, sizes, random);
+            float[] keys = new float[sizes.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (float) random.nextDouble();
+            }
+            return () -> hfa.evaluateKeys(keys, 0);
+        });
+        BENCHMARKS.put("HFA.calculateDistance", (instance, random) -> {
+            int[] sizes = instance.expand();
+            HybridFireflyAlgorithm hfa = firefly(instance, sizes, random);
+            int[] swarm = new int[2 * sizes.length];
+            System.arraycopy(shuffledWeights(sizes, random), 0, swarm, 0, sizes.length);
+            System.arraycopy(shuffledWeights(sizes, random), 0, swarm, sizes.length, sizes.length);
+            return () -> (long) hfa.calculateDistance(swarm, 0, swarm, sizes.length);
+        });
+        // Noise and move kernel of one random-key move, without the distance
+        BENCHMARKS.put("HFA.moveKeys", (instance, random) -> {
+            int n = (int) instance.getItemCount();
+            float[] keys = new float[2 * n];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (float) random.nextDouble();
+            }
+            float[] gaussian = new float[(n + 1) & ~1];
+            return () -> {
+                FireflyKernels.gaussians(gaussian, n, random);
+                FireflyKernels.move(keys, 0, keys, n, 0.3f, 0.1f, gaussian, n);
+                return Float.floatToRawIntBits(keys[0]);
+            };
+        });
+        BENCHMARKS.put("ACO.constructSolution", (instance, random) -> {
+            int[] sizes = instance.expand();
+            AntColonyOptimization aco = new AntColonyOptimization(sizes.length, instance.getBinCapacity(), sizes);
+            aco.setSeed(random.nextLong());
+            return () -> aco.constructSolution().length;
+        });
+    }
+
+    // The operation of the named benchmark on the named bundled instance with every item repeated scale times,
+    // prepared from seed. Called by the JMH benchmarks in bench.OperatorBenchmarks once per trial, which is why it
+    // only takes and returns JDK types: a class in a named package cannot refer to the classes of this tree.
+    public static LongSupplier operation(String benchmark, String instanceName, int scale, long seed) throws IOException {
+        Benchmark factory = BENCHMARKS.get(benchmark);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown benchmark " + benchmark);
+        }
+        BppInstance instance = null;
+        for (BppInstance candidate : BppReader.readAll(Path.of(INSTANCES_FILE))) {
+            if (candidate.getName().replace("'", "").equals(instanceName)) {
+                instance = scale == 1 ? candidate : scaleUp(candidate, scale);
+            }
+        }
+        if (instance == null) {
+            throw new IllegalArgumentException("No instance " + instanceName + " in " + INSTANCES_FILE);
+        }
+        return factory.setUp(instance, new SplittableRandom(seed));
+    }
+
+    // The instance with every item repeated scale times
+    private static BppInstance scaleUp(BppInstance instance, int scale) {
+        int[] weights = new int[instance.getTypeCount()];
+        int[] counts = new int[weights.length];
+        for (int type = 0; type < weights.length; type++) {
+            weights[type] = instance.getWeight(type);
+            counts[type] = instance.getCount(type) * scale;
+        }
+        return new BppInstance(instance.getName().replace("'", "") + "x" + scale, instance.getBinCapacity(), weights, counts);
+    }
+
+    private static int[] shuffledOrder(int n, SplittableRandom random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    private static int[] shuffledWeights(int[] sizes, SplittableRandom random) {
+        int[] order = shuffledOrder(sizes.length, random);
+        int[] weights = new int[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            weights[i] = sizes[order[i]];
+        }
+        return weights;
+    }
+
+    // Random First-Fit individuals improved by the replacement search, as the GA's initial population
+    private static List<GeneticAlgorithm.Individual> parents(int[] sizes, int binCapacity, SplittableRandom random) {
+        GeneticAlgorithm.Workspace workspace = new GeneticAlgorithm.Workspace();
+        List<GeneticAlgorithm.Individual> parents = GeneticAlgorithm.generateInitialPopulation(sizes, binCapacity, POPULATION, random,
+                workspace);
+        for (GeneticAlgorithm.Individual parent : parents) {
+            GeneticAlgorithm.optimizeBinFilling(parent, sizes, binCapacity, workspace);
+        }
+        return parents;
+    }
+
+    private static HybridFireflyAlgorithm firefly(BppInstance instance, int[] sizes, SplittableRandom random) {
+        return new HybridFireflyAlgorithm(instance.getBinCapacity(), Arrays.stream(sizes).boxed().toList(), 1, 0.3, 0.3,
+                0.1, 0.95, false, new Random(random.nextLong()));
+    }
+}
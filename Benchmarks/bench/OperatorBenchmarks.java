@@ -0,0 +1,106 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+// JMH benchmarks of the hot operators of the four algorithms, one method per operation of BenchmarkOperations, whose
+// name is the method name with the first '_' read as '.'. Run them with the jmh profile of the pom, which adds the GC
+// profiler for the allocation per operation:
+//     mvn -Pjmh verify -DskipTests [-Djmh.filter=GA_crossover] [-Djmh.params=scale=1,10,100]
+// JMH refuses benchmarks in the unnamed package and a named package cannot refer to the classes of this tree, so the
+// operation is looked up reflectively once per trial. Every fork runs a single operation, which keeps the call
+// through the LongSupplier monomorphic, and the returned value goes to JMH's blackhole.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OperatorBenchmarks {
+    private static final long SEED = 42;
+
+    @Param({"TEST0049", "TEST0014", "TEST0082", "TEST0044", "TEST0030"})
+    public String instance;
+
+    @Param({"1", "10"})
+    public int scale;
+
+    private LongSupplier operation;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws ReflectiveOperationException {
+        String method = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1);
+        String name = method.replaceFirst("_", ".");
+        operation = (LongSupplier) Class.forName("BenchmarkOperations")
+                .getMethod("operation", String.class, String.class, int.class, long.class)
+                .invoke(null, name, instance, scale, SEED);
+    }
+
+    @Benchmark
+    public long GA_applyFirstFit() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long GA_crossover() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long GA_mutate() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long GA_optimizeBinFilling() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long CSGA_decode() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long CSGA_decodeChild() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long HFA_evaluate() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long HFA_evaluateKeys() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long HFA_calculateDistance() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long HFA_moveKeys() {
+        return operation.getAsLong();
+    }
+
+    @Benchmark
+    public long ACO_constructSolution() {
+        return operation.getAsLong();
+    }
+}
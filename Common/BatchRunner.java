@@ -0,0 +1,257 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Runs every selected algorithm on every instance with several seeds and writes one JSON line per run.
+// Compile Common and all four algorithm directories into one output directory and run from the repository root:
+//     BatchRunner --instances <BPP.txt or archive> [--algorithms GA,ACO,CSGA,HFA] [--seeds N] [--budget N]
+//                 [--millis N] [--threads N] [--out results.jsonl] [--telemetry telemetry.tsv]
+//                 [--set [ALGORITHM.]key=value ...]
+// --millis gives every run a wall-clock deadline, after which it returns its best solution so far. Runs stop at
+// whichever of the budget and the deadline comes first, so a deadline alone is set with a large --budget.
+// --telemetry writes the per-generation telemetry of every run to a tab-separated file, see TelemetryExporter.
+// The algorithms are found by class name, so any subset of the directories can be compiled. Every run is one job on
+// a work-stealing pool and the jobs are submitted longest first by Solver.estimateCost, so that a long run does not
+// start last and keep one thread busy while the others are idle. Results are written in completion order.
+public class BatchRunner {
+    private static final String[] ALGORITHM_CLASSES = {
+            "GeneticAlgorithm", "AntColonyOptimization", "CuckooSearchGeneticAlgorithm", "HybridFireflyAlgorithm"};
+    private static final long SEED = 42; // Seeds of the runs are SEED, SEED + 1, ...
+    private static final int TELEMETRY_CAPACITY = 4096; // Generations kept per run between two exporter samples
+    private static final long TELEMETRY_INTERVAL_MILLIS = 100;
+
+    private static class Job {
+        final BppInstance instance;
+        final Solver solver;
+        final Map<String, String> config;
+        final long seed;
+        final double cost;
+
+        Job(BppInstance instance, Solver solver, Map<String, String> config, long seed, int budget) {
+            this.instance = instance;
+            this.solver = solver;
+            this.config = config;
+            this.seed = seed;
+            this.cost = solver.estimateCost(instance, config, budget);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String instancesFile = null;
+        List<String> algorithms = null;
+        int seeds = 1;
+        int budget = 0;
+        long millis = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outFile = "results.jsonl";
+        String telemetryFile = null;
+        Map<String, String> sharedConfig = new HashMap<>();
+        Map<String, Map<String, String>> algorithmConfig = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--instances" -> instancesFile = value;
+                case "--algorithms" -> algorithms = Arrays.asList(value.toUpperCase().split(","));
+                case "--seeds" -> seeds = Integer.parseInt(value);
+                case "--budget" -> budget = Integer.parseInt(value);
+                case "--millis" -> millis = Long.parseLong(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--out" -> outFile = value;
+                case "--telemetry" -> telemetryFile = value;
+                case "--set" -> {
+                    int equals = value.indexOf('=');
+                    String key = value.substring(0, equals);
+                    int dot = key.indexOf('.');
+                    if (dot < 0) {
+                        sharedConfig.put(key, value.substring(equals + 1));
+                    } else {
+                        algorithmConfig.computeIfAbsent(key.substring(0, dot).toUpperCase(), k -> new HashMap<>())
+                                .put(key.substring(dot + 1), value.substring(equals + 1));
+                    }
+                }
+                default -> {
+                    System.out.println("Unknown argument " + args[i]);
+                    return;
+                }
+            }
+            i++;
+        }
+        if (instancesFile == null) {
+            System.out.println("Usage: BatchRunner --instances <BPP.txt or archive> [--algorithms GA,ACO,CSGA,HFA] "
+                    + "[--seeds N] [--budget N] [--millis N] [--threads N] [--out results.jsonl] "
+                    + "[--telemetry telemetry.tsv] [--set [ALGORITHM.]key=value]");
+            return;
+        }
+
+        List<BppInstance> instances = readInstances(Path.of(instancesFile));
+        List<Job> jobs = new ArrayList<>();
+        for (Solver solver : findSolvers()) {
+            String name = solver.getName().toUpperCase();
+            if (algorithms != null && !algorithms.contains(name)) {
+                continue;
+            }
+            Map<String, String> config = new HashMap<>(sharedConfig);
+            config.putAll(algorithmConfig.getOrDefault(name, Map.of()));
+            for (BppInstance instance : instances) {
+                for (int k = 0; k < seeds; k++) {
+                    jobs.add(new Job(instance, solver, config, SEED + k, budget));
+                }
+            }
+        }
+        jobs.sort(Comparator.comparingDouble((Job job) -> job.cost).reversed());
+        System.out.println("Running " + jobs.size() + " jobs on " + threads + " threads, writing " + outFile);
+
+        long start = System.nanoTime();
+        int jobBudget = budget;
+        long jobMillis = millis;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(Path.of(outFile)));
+             TelemetryExporter exporter = telemetryFile != null
+                     ? new TelemetryExporter(Path.of(telemetryFile), TELEMETRY_INTERVAL_MILLIS) : null) {
+            int[] finished = {0};
+            List<Future<?>> futures = new ArrayList<>();
+            for (Job job : jobs) {
+                futures.add(pool.submit(() -> {
+                    String line = run(job, jobBudget, jobMillis, exporter);
+                    synchronized (out) {
+                        out.write(line);
+                        out.write('\n');
+                        out.flush();
+                        System.out.println("[" + ++finished[0] + "/" + jobs.size() + "] " + line);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Could not write " + outFile, e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        System.out.printf("Finished %d jobs in %.1f s%n", jobs.size(), (System.nanoTime() - start) / 1e9);
+    }
+
+    // Solvers of the algorithm classes on the class path, in ALGORITHM_CLASSES order
+    static List<Solver> findSolvers() {
+        List<Solver> solvers = new ArrayList<>();
+        for (String className : ALGORITHM_CLASSES) {
+            try {
+                solvers.add((Solver) Class.forName(className).getMethod("solver").invoke(null));
+            } catch (ClassNotFoundException e) {
+                // Directory not compiled in, skip it
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(className + " has no usable solver() method", e);
+            }
+        }
+        return solvers;
+    }
+
+    // Reads an archive written by BppArchive, or a BPP.txt file if the file is not an archive
+    static List<BppInstance> readInstances(Path file) throws IOException {
+        BppArchive archive;
+        try {
+            archive = BppArchive.open(file);
+        } catch (IOException e) {
+            return BppReader.readAll(file);
+        }
+        try (archive) {
+            List<BppInstance> instances = new ArrayList<>();
+            archive.forEach(instances::add);
+            return instances;
+        }
+    }
+
+    // One run as a JSON object. A run that throws is reported with its error instead of a packing.
+    private static String run(Job job, int budget, long millis, TelemetryExporter exporter) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("instance", job.instance.getName());
+        fields.put("algorithm", job.solver.getName());
+        fields.put("seed", job.seed);
+        fields.put("budget", budget);
+        int lowerBound = LowerBounds.of(job.instance);
+        fields.put("lowerBound", lowerBound);
+        long start = System.nanoTime();
+        // The time to the best solution shows how much of the deadline a run needed
+        long[] incumbentNanos = {0};
+        SearchControl control = new SearchControl().onIncumbent(incumbent -> incumbentNanos[0] = System.nanoTime() - start);
+        if (millis > 0) {
+            control.withDeadline(millis);
+            fields.put("deadlineMillis", millis);
+        }
+        if (exporter != null) {
+            Telemetry telemetry = new Telemetry(job.solver.getName(), job.instance.getName() + " seed " + job.seed,
+                    TELEMETRY_CAPACITY);
+            exporter.register(telemetry);
+            control.withTelemetry(telemetry);
+        }
+        try {
+            SolverResult result = job.solver.solve(job.instance, job.config, job.seed, budget, control);
+            fields.put("bins", result.getBinCount());
+            boolean feasible = result.isFeasible(job.instance);
+            fields.put("feasible", feasible);
+            fields.put("provenOptimal", feasible && result.getBinCount() == lowerBound);
+            fields.put("millis", (System.nanoTime() - start) / 1_000_000);
+            fields.put("incumbentMillis", incumbentNanos[0] / 1_000_000);
+            fields.put("stats", result.getStats());
+        } catch (RuntimeException | Error e) {
+            fields.put("millis", (System.nanoTime() - start) / 1_000_000);
+            fields.put("error", e.toString());
+        } finally {
+            if (exporter != null) {
+                exporter.finish(control.getTelemetry());
+            }
+        }
+        return toJson(fields);
+    }
+
+    private static String toJson(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            StringBuilder json = new StringBuilder("{");
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (json.length() > 1) {
+                    json.append(", ");
+                }
+                json.append(toJson(entry.getKey().toString())).append(": ").append(toJson(entry.getValue()));
+            }
+            return json.append('}').toString();
+        }
+        if (value instanceof Double number && !Double.isFinite(number)) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        StringBuilder json = new StringBuilder("\"");
+        for (char c : String.valueOf(value).toCharArray()) {
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
@@ -0,0 +1,305 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Compact binary container for many bin packing instances with O(1) lookup by name.
+// Layout, all fixed-width numbers big-endian:
+//     header   int magic, int version, int instance count, int index slots, long index offset, long unused
+//     records  one per instance in input order: int record length, then varints for the name length, the UTF-8
+//              name, the bin capacity, the number of item types and per type the zigzag delta of the weight to the
+//              previous weight and the count
+//     index    open-addressing hash table of (long name hash, long record offset) slots, offset 0 marks a free slot
+// The index is written after the records so that an archive can be converted from a stream of instances, and the
+// header is patched once the count is known. Names are indexed without surrounding quotes, so 'TEST0082' can be
+// looked up as TEST0082 as well.
+// Records are read through a memory-mapped window like BppReader, so opening an archive only maps its index.
+public class BppArchive implements Iterable<BppInstance>, AutoCloseable {
+    private static final int MAGIC = 0x42505041; // "BPPA"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+    private static final long WINDOW_SIZE = 1L << 26;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int instanceCount;
+    private final int slots;
+    private final long indexOffset;
+    private final MappedByteBuffer index;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    private BppArchive(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            channel.close();
+            throw new IOException(file + " is too short to be a BPP archive");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            channel.close();
+            throw new IOException(file + " is not a version " + VERSION + " BPP archive");
+        }
+        this.instanceCount = header.getInt();
+        this.slots = header.getInt();
+        this.indexOffset = header.getLong();
+        this.index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long) slots * SLOT_SIZE);
+    }
+
+    public static BppArchive open(Path file) throws IOException {
+        return new BppArchive(file);
+    }
+
+    public int size() {
+        return instanceCount;
+    }
+
+    // The instance with the given name, with or without surrounding quotes, or null if the archive has none
+    public BppInstance get(String name) {
+        String key = key(name);
+        long hash = hash(key);
+        for (int slot = (int) (hash & (slots - 1)); ; slot = (slot + 1) & (slots - 1)) {
+            long offset = index.getLong(slot * SLOT_SIZE + 8);
+            if (offset == 0) {
+                return null;
+            }
+            if (index.getLong(slot * SLOT_SIZE) == hash) {
+                BppInstance instance = readRecord(offset);
+                if (key(instance.getName()).equals(key)) {
+                    return instance;
+                }
+            }
+        }
+    }
+
+    // All instances in the order they were written
+    @Override
+    public Iterator<BppInstance> iterator() {
+        return new Iterator<>() {
+            private long offset = HEADER_SIZE;
+
+            @Override
+            public boolean hasNext() {
+                return offset < indexOffset;
+            }
+
+            @Override
+            public BppInstance next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                BppInstance instance = readRecord(offset);
+                offset += 4 + recordLength(offset);
+                return instance;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Writes the instances to an archive and returns their number. The instances are only held one at a time.
+    public static int write(Iterator<BppInstance> instances, Path file) throws IOException {
+        long[] hashes = new long[1024];
+        long[] offsets = new long[1024];
+        int count = 0;
+        long position = HEADER_SIZE;
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            DataOutputStream out = new DataOutputStream(stream);
+            out.write(new byte[HEADER_SIZE]); // Patched below
+            RecordBuffer record = new RecordBuffer();
+            while (instances.hasNext()) {
+                BppInstance instance = instances.next();
+                record.encode(instance);
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, 2 * count);
+                    offsets = Arrays.copyOf(offsets, 2 * count);
+                }
+                hashes[count] = hash(key(instance.getName()));
+                offsets[count++] = position;
+                out.writeInt(record.length);
+                out.write(record.bytes, 0, record.length);
+                position += 4 + record.length;
+            }
+
+            // At most half of the slots are used, which keeps the probe sequences short
+            int slots = Integer.highestOneBit(Math.max(2 * count, 1)) << 1;
+            long[] table = new long[2 * slots];
+            for (int i = 0; i < count; i++) {
+                int slot = (int) (hashes[i] & (slots - 1));
+                while (table[2 * slot + 1] != 0) {
+                    slot = (slot + 1) & (slots - 1);
+                }
+                table[2 * slot] = hashes[i];
+                table[2 * slot + 1] = offsets[i];
+            }
+            for (long value : table) {
+                out.writeLong(value);
+            }
+            out.flush();
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(slots).putLong(position).putLong(0).flip();
+                channel.write(header, 0);
+            }
+        }
+        return count;
+    }
+
+    // Converts a BPP.txt file: BppArchive <BPP.txt> <archive>, or prints one instance: BppArchive --get <archive> <name>
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("--get")) {
+            long start = System.nanoTime();
+            try (BppArchive archive = open(Path.of(args[1]))) {
+                BppInstance instance = archive.get(args[2]);
+                double millis = (System.nanoTime() - start) / 1e6;
+                if (instance == null) {
+                    System.out.println("No instance " + args[2] + " among " + archive.size() + " instances");
+                } else {
+                    System.out.printf("%s: capacity %d, %d item types, %d items (opened and loaded in %.2f ms)%n",
+                            instance.getName(), instance.getBinCapacity(), instance.getTypeCount(),
+                            instance.getItemCount(), millis);
+                }
+            }
+            return;
+        }
+        if (args.length != 2) {
+            System.out.println("Usage: BppArchive <BPP.txt> <archive> | BppArchive --get <archive> <name>");
+            return;
+        }
+        long start = System.nanoTime();
+        int count;
+        try (BppReader reader = new BppReader(Path.of(args[0]))) {
+            count = write(reader, Path.of(args[1]));
+        }
+        System.out.printf("Converted %d instances from %s (%d bytes) to %s (%d bytes) in %.1f ms%n", count, args[0],
+                Files.size(Path.of(args[0])), args[1], Files.size(Path.of(args[1])), (System.nanoTime() - start) / 1e6);
+    }
+
+    private int recordLength(long offset) {
+        ByteBuffer buffer = window(offset, 4);
+        return buffer.getInt(buffer.position());
+    }
+
+    private BppInstance readRecord(long offset) {
+        int length = recordLength(offset);
+        ByteBuffer buffer = window(offset + 4, length);
+        byte[] name = new byte[readVarint(buffer)];
+        buffer.get(name);
+        int binCapacity = readVarint(buffer);
+        int types = readVarint(buffer);
+        int[] weights = new int[types];
+        int[] counts = new int[types];
+        int weight = 0;
+        for (int type = 0; type < types; type++) {
+            int delta = readVarint(buffer);
+            weight += (delta >>> 1) ^ -(delta & 1);
+            weights[type] = weight;
+            counts[type] = readVarint(buffer);
+        }
+        return new BppInstance(new String(name, StandardCharsets.UTF_8), binCapacity, weights, counts);
+    }
+
+    // A buffer positioned at offset with at least length bytes remaining, remapping the window when needed
+    private ByteBuffer window(long offset, int length) {
+        if (window == null || offset < windowStart || offset + length > windowStart + window.capacity()) {
+            if (offset + length > indexOffset) {
+                throw new IllegalStateException("Record at " + offset + " runs past the end of the records");
+            }
+            try {
+                windowStart = offset;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                        Math.max(length, Math.min(WINDOW_SIZE, fileSize - offset)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        ByteBuffer view = window.duplicate();
+        view.position((int) (offset - windowStart));
+        return view;
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String key(String name) {
+        String trimmed = name.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("'") && trimmed.endsWith("'")) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes of the key
+    private static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Encoded form of one record, reused between records
+    private static class RecordBuffer {
+        byte[] bytes = new byte[256];
+        int length;
+
+        void encode(BppInstance instance) {
+            length = 0;
+            byte[] name = instance.getName().getBytes(StandardCharsets.UTF_8);
+            writeVarint(name.length);
+            ensure(name.length);
+            System.arraycopy(name, 0, bytes, length, name.length);
+            length += name.length;
+            writeVarint(instance.getBinCapacity());
+            writeVarint(instance.getTypeCount());
+            int previous = 0;
+            for (int type = 0; type < instance.getTypeCount(); type++) {
+                int delta = instance.getWeight(type) - previous;
+                writeVarint((delta << 1) ^ (delta >> 31));
+                writeVarint(instance.getCount(type));
+                previous = instance.getWeight(type);
+            }
+        }
+
+        private void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, length + extra));
+            }
+        }
+    }
+}
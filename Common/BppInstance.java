@@ -0,0 +1,72 @@
+import java.util.Arrays;
+
+// One bin packing instance in run-length form: item type i has weight weights[i] and occurs counts[i] times, in the
+// order of the file. Instances with many copies of the same weight stay small until expand() is called.
+public class BppInstance {
+    private final String name;
+    private final int binCapacity;
+    private final int[] weights;
+    private final int[] counts;
+
+    public BppInstance(String name, int binCapacity, int[] weights, int[] counts) {
+        if (weights.length != counts.length) {
+            throw new IllegalArgumentException("Got " + weights.length + " weights but " + counts.length + " counts");
+        }
+        this.name = name;
+        this.binCapacity = binCapacity;
+        this.weights = weights;
+        this.counts = counts;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBinCapacity() {
+        return binCapacity;
+    }
+
+    // Number of (weight, count) pairs
+    public int getTypeCount() {
+        return weights.length;
+    }
+
+    public int getWeight(int type) {
+        return weights[type];
+    }
+
+    public int getCount(int type) {
+        return counts[type];
+    }
+
+    public long getItemCount() {
+        long items = 0;
+        for (int count : counts) {
+            items += count;
+        }
+        return items;
+    }
+
+    public long getTotalWeight() {
+        long total = 0;
+        for (int type = 0; type < weights.length; type++) {
+            total += (long) weights[type] * counts[type];
+        }
+        return total;
+    }
+
+    // One entry per item, every weight repeated count times in file order
+    public int[] expand() {
+        long items = getItemCount();
+        if (items > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Instance " + name + " has " + items + " items, too many to expand");
+        }
+        int[] sizes = new int[(int) items];
+        int next = 0;
+        for (int type = 0; type < weights.length; type++) {
+            Arrays.fill(sizes, next, next + counts[type], weights[type]);
+            next += counts[type];
+        }
+        return sizes;
+    }
+}
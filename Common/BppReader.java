@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Streaming parser for the BPP.txt format shared by all algorithms:
+//     <name>
+//     <number of item types>
+//     <bin capacity>
+//     <weight> <count>     (one line per item type)
+// repeated for every instance. The file is memory-mapped in windows of WINDOW_SIZE bytes and scanned byte by byte,
+// so the only objects created per instance are its name and its two run-length arrays, and a file of any size is
+// read with one window of it mapped at a time. Instances are returned one at a time in file order.
+public class BppReader implements Iterator<BppInstance>, AutoCloseable {
+    private static final long WINDOW_SIZE = 1L << 26;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    public BppReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        map(0);
+    }
+
+    // Reads every instance of a file
+    public static List<BppInstance> readAll(Path file) throws IOException {
+        try (BppReader reader = new BppReader(file)) {
+            List<BppInstance> instances = new ArrayList<>();
+            reader.forEachRemaining(instances::add);
+            return instances;
+        }
+    }
+
+    // Lazily parsed instances of a file, the file is closed when the stream is closed
+    public static Stream<BppInstance> stream(Path file) throws IOException {
+        BppReader reader = new BppReader(file);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return skipWhitespace() != -1;
+    }
+
+    @Override
+    public BppInstance next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String name = readLine();
+        int types = readInt("number of item types");
+        int binCapacity = readInt("bin capacity");
+        int[] weights = new int[Math.min(types, 1 << 20)];
+        int[] counts = new int[weights.length];
+        for (int type = 0; type < types; type++) {
+            if (type == weights.length) {
+                weights = Arrays.copyOf(weights, Math.min(types, 2 * weights.length));
+                counts = Arrays.copyOf(counts, weights.length);
+            }
+            weights[type] = readInt("item weight");
+            counts[type] = readInt("item count");
+        }
+        return new BppInstance(name, binCapacity, weights, counts);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(long start) {
+        try {
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long position() {
+        return windowStart + window.position();
+    }
+
+    // Next byte without consuming it, or -1 at the end of the file
+    private int peek() {
+        if (!window.hasRemaining()) {
+            long next = position();
+            if (next >= fileSize) {
+                return -1;
+            }
+            map(next);
+        }
+        return window.get(window.position()) & 0xFF;
+    }
+
+    private void skip() {
+        window.position(window.position() + 1);
+    }
+
+    private int skipWhitespace() {
+        int b = peek();
+        while (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+            skip();
+            b = peek();
+        }
+        return b;
+    }
+
+    private int readInt(String field) {
+        int b = skipWhitespace();
+        if (b < '0' || b > '9') {
+            throw malformed("Expected the " + field);
+        }
+        long value = 0;
+        while (b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw malformed("The " + field + " does not fit into an int");
+            }
+            skip();
+            b = peek();
+        }
+        return (int) value;
+    }
+
+    // Rest of the current line without surrounding whitespace
+    private String readLine() {
+        ByteSink line = new ByteSink();
+        for (int b = peek(); b != -1 && b != '\n'; b = peek()) {
+            line.add((byte) b);
+            skip();
+        }
+        return line.toString().trim();
+    }
+
+    private IllegalArgumentException malformed(String message) {
+        return new IllegalArgumentException(message + " at byte " + position() + " of the BPP file");
+    }
+
+    private static class ByteSink {
+        private byte[] bytes = new byte[64];
+        private int length;
+
+        void add(byte b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, 2 * length);
+            }
+            bytes[length++] = b;
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JFR event of one solver generation, committed by Telemetry. Its duration is the generation's wall time. Record with
+//     java -XX:StartFlightRecording=filename=run.jfr ... and inspect with: jfr print --events bpp.Generation run.jfr
+@Name("bpp.Generation")
+@Label("Solver Generation")
+@Category("Bin Packing")
+@Description("Convergence and operator cost of one generation or colony iteration")
+@StackTrace(false)
+class GenerationEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Instance")
+    String instance;
+
+    @Label("Generation")
+    int generation;
+
+    @Label("Best Fitness")
+    double best;
+
+    @Label("Mean Fitness")
+    double mean;
+
+    @Label("Diversity")
+    int diversity;
+
+    @Label("Evaluations")
+    long evaluations;
+
+    @Label("Decodes")
+    long decodes;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Crossover Time")
+    @Timespan
+    long crossoverNanos;
+
+    @Label("Mutation Time")
+    @Timespan
+    long mutateNanos;
+
+    @Label("Repair Time")
+    @Timespan
+    long repairNanos;
+
+    @Label("Evaluation Time")
+    @Timespan
+    long evaluateNanos;
+
+    @Label("Construction Time")
+    @Timespan
+    long constructNanos;
+
+    @Label("Local Search Time")
+    @Timespan
+    long localSearchNanos;
+
+    @Label("Move Time")
+    @Timespan
+    long moveNanos;
+
+    @Label("Pheromone Update Time")
+    @Timespan
+    long pheromoneNanos;
+}
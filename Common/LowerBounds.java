@@ -0,0 +1,125 @@
+import java.util.Arrays;
+import java.util.TreeMap;
+
+// Lower bounds on the number of bins of an instance, computed from the multiset of item sizes in O(n log n):
+//     L1  ceil(total size / capacity)
+//     L2  Martello & Toth: for a threshold a, items larger than C - a need a bin each, items larger than C / 2 need
+//         a bin each as well, and the items of size a .. C / 2 can only use the space those bins leave free or need
+//         new bins. The bound is the largest count over every a that is an item size up to C / 2.
+//     L3  L2 after the reduction of Martello & Toth: while the largest item j fits together with no two other items,
+//         the bin {j, k} with k the largest item that fits next to j is part of an optimal packing, so it is counted
+//         and both items are removed.
+// A packing that uses as many bins as a bound is optimal, which lets every algorithm stop as soon as it finds one.
+// The GA's old stopping rule, floor(total / capacity) + 1, equals L1 unless the total is a multiple of the capacity.
+// Then it is one bin above L1 and not a bound, so the GA could not stop at a packing that fills every bin exactly. It
+// also never exceeds L1 otherwise, so it ignored the large items that L2 and L3 account for.
+public class LowerBounds {
+    private LowerBounds() {
+    }
+
+    // The strongest of the three bounds
+    public static int of(int[] sizes, int binCapacity) {
+        return l3(sizes, binCapacity);
+    }
+
+    public static int of(BppInstance instance) {
+        return of(instance.expand(), instance.getBinCapacity());
+    }
+
+    public static int l1(int[] sizes, int binCapacity) {
+        long total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        return (int) ((total + binCapacity - 1) / binCapacity);
+    }
+
+    public static int l2(int[] sizes, int binCapacity) {
+        int[] sorted = sizes.clone();
+        Arrays.sort(sorted);
+        return l2Sorted(sorted, binCapacity);
+    }
+
+    public static int l3(int[] sizes, int binCapacity) {
+        TreeMap<Integer, Integer> remaining = new TreeMap<>();
+        for (int size : sizes) {
+            remaining.merge(size, 1, Integer::sum);
+        }
+        int fixedBins = 0;
+        int removed = 0;
+        while (!remaining.isEmpty()) {
+            int largest = remaining.lastKey();
+            remove(remaining, largest);
+            Integer partner = remaining.floorKey(binCapacity - largest);
+            if (partner == null) {
+                fixedBins++; // Nothing fits next to the largest item
+                removed++;
+                continue;
+            }
+            int smallest = remaining.firstKey();
+            Integer secondSmallest = remaining.get(smallest) > 1 ? Integer.valueOf(smallest) : remaining.higherKey(smallest);
+            if (secondSmallest != null && (long) largest + smallest + secondSmallest <= binCapacity) {
+                remaining.merge(largest, 1, Integer::sum);
+                break; // The largest item can share a bin with two others, no dominated bin left
+            }
+            remove(remaining, partner);
+            fixedBins++;
+            removed += 2;
+        }
+
+        int[] rest = new int[sizes.length - removed];
+        int next = 0;
+        for (var entry : remaining.entrySet()) {
+            Arrays.fill(rest, next, next + entry.getValue(), entry.getKey());
+            next += entry.getValue();
+        }
+        return Math.max(l2(sizes, binCapacity), fixedBins + l2Sorted(rest, binCapacity));
+    }
+
+    // L2 of sizes sorted ascending. With prefix sums every threshold takes three binary searches.
+    private static int l2Sorted(int[] sorted, int binCapacity) {
+        int n = sorted.length;
+        long[] prefix = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            prefix[i + 1] = prefix[i] + sorted[i];
+        }
+        int half = countAtMost(sorted, binCapacity / 2); // Items 0 .. half - 1 are at most C / 2
+        int bound = 0;
+        for (int i = 0; i <= half; i++) {
+            // Thresholds 0 and every distinct size up to C / 2
+            if (i > 0 && i < half && sorted[i] == sorted[i - 1]) {
+                continue;
+            }
+            int threshold = i == half ? 0 : sorted[i];
+            int large = countAtMost(sorted, binCapacity - threshold); // Items large .. n - 1 exceed C - threshold
+            int small = i == half ? 0 : i; // Items small .. half - 1 are at least the threshold
+            long mediumCount = large - half;
+            long mediumFree = mediumCount * binCapacity - (prefix[large] - prefix[half]);
+            long smallTotal = prefix[half] - prefix[small];
+            long extra = Math.max(0, (smallTotal - mediumFree + binCapacity - 1) / binCapacity);
+            bound = (int) Math.max(bound, (n - large) + mediumCount + extra);
+        }
+        return bound;
+    }
+
+    // Number of entries of sorted that are at most value
+    private static int countAtMost(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void remove(TreeMap<Integer, Integer> counts, int size) {
+        if (counts.merge(size, -1, Integer::sum) == 0) {
+            counts.remove(size);
+        }
+    }
+}
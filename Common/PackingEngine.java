@@ -0,0 +1,300 @@
+import java.util.Arrays;
+
+// Shared packing engine used by all four algorithms to decode solutions.
+// Residual capacities are kept in a max segment tree over primitive int[] loads, so First-Fit is a single
+// O(log n) descent to the leftmost bin with enough room instead of a scan over every bin (and every item in it).
+// Unopened bins sit in the tree with a full residual capacity, which means "open a new bin" falls out of the same query.
+// Best-Fit uses a second tree over residual values (0..binCapacity) with a bucket list of bins per residual, which is
+// built lazily on the first Best-Fit call because it needs O(binCapacity) memory.
+// An engine is not thread-safe; reuse one per thread and call reset() before every decode.
+public class PackingEngine {
+    private int binCapacity = -1;
+    private int maxBins;
+    private int leafBase;      // Index of the first leaf in the heap-ordered tree (a power of two >= maxBins)
+    private int[] residualTree; // Max residual capacity of each subtree, leaves are bins
+    private int[] loads;        // Current load of each bin
+    private int binCount;       // Bins 0..binCount-1 are open
+
+    // Best-Fit index, only maintained once bestFit() has been used since the last capacity change
+    private boolean bestFitIndexed = false;
+    private int residualBase;
+    private int[] residualCounts; // Number of open bins per residual value, as a sum tree over 0..binCapacity
+    private int[] bucketHead;     // First bin with a given residual
+    private int[] bucketNext;
+    private int[] bucketPrev;
+
+    public PackingEngine() {
+    }
+
+    public PackingEngine(int binCapacity, int maxBins) {
+        reset(binCapacity, maxBins);
+    }
+
+    // Empties every bin. Only the bins that were opened since the last reset are cleared, so repeated decodes of
+    // the same instance do not pay for the full tree every time.
+    public void reset(int binCapacity, int maxBins) {
+        if (binCapacity < 0) {
+            throw new IllegalArgumentException("Bin capacity must not be negative: " + binCapacity);
+        }
+        if (binCapacity != this.binCapacity || maxBins > this.maxBins) {
+            allocate(binCapacity, Math.max(maxBins, 1));
+            return;
+        }
+        for (int bin = 0; bin < binCount; bin++) {
+            if (bestFitIndexed) {
+                unlinkResidual(bin);
+            }
+            loads[bin] = 0;
+            updateResidual(bin);
+        }
+        binCount = 0;
+    }
+
+    private void allocate(int binCapacity, int maxBins) {
+        this.binCapacity = binCapacity;
+        this.maxBins = maxBins;
+        this.leafBase = Integer.highestOneBit(Math.max(maxBins - 1, 1)) << 1;
+        this.residualTree = new int[2 * leafBase];
+        this.loads = new int[maxBins];
+        this.binCount = 0;
+        // Only real bins start with room, padding leaves stay at -1 so they are never selected
+        Arrays.fill(residualTree, leafBase, leafBase + maxBins, binCapacity);
+        Arrays.fill(residualTree, leafBase + maxBins, 2 * leafBase, -1);
+        for (int node = leafBase - 1; node >= 1; node--) {
+            residualTree[node] = Math.max(residualTree[2 * node], residualTree[2 * node + 1]);
+        }
+        this.bestFitIndexed = false;
+        this.residualCounts = null;
+        this.bucketHead = null;
+        this.bucketNext = null;
+        this.bucketPrev = null;
+    }
+
+    // Empties the engine and reopens binCount bins with the given loads, e.g. a snapshot taken with copyLoads, so a
+    // decode can resume from the middle of a sequence in O(binCount log maxBins)
+    public void restore(int binCapacity, int maxBins, int[] binLoads, int binCount) {
+        reset(binCapacity, maxBins);
+        for (int bin = 0; bin < binCount; bin++) {
+            add(bin, binLoads[bin]);
+        }
+    }
+
+    public int getBinCapacity() {
+        return binCapacity;
+    }
+
+    public int getBinCount() {
+        return binCount;
+    }
+
+    public int getLoad(int bin) {
+        return loads[bin];
+    }
+
+    // Total unused capacity over all open bins
+    public long getWaste() {
+        long waste = 0;
+        for (int bin = 0; bin < binCount; bin++) {
+            waste += binCapacity - loads[bin];
+        }
+        return waste;
+    }
+
+    // Copies the loads of the open bins into dest and returns the number of open bins
+    public int copyLoads(int[] dest) {
+        System.arraycopy(loads, 0, dest, 0, binCount);
+        return binCount;
+    }
+
+    // Places an item into the first open bin with enough room, opening a new bin if none has, and returns the bin index
+    public int firstFit(int size) {
+        if (size > residualTree[1]) {
+            throw new IllegalArgumentException("Item of size " + size + " does not fit into an empty bin of capacity "
+                    + binCapacity + " (or more than " + maxBins + " bins are needed)");
+        }
+        int node = 1;
+        while (node < leafBase) {
+            node = residualTree[2 * node] >= size ? 2 * node : 2 * node + 1;
+        }
+        int bin = node - leafBase;
+        add(bin, size);
+        return bin;
+    }
+
+    // Places an item into the open bin that leaves the least slack, opening a new bin if none has room
+    public int bestFit(int size) {
+        if (!bestFitIndexed) {
+            buildBestFitIndex();
+        }
+        int residual = smallestResidualAtLeast(size);
+        int bin = residual >= 0 ? bucketHead[residual] : binCount;
+        if (bin >= maxBins || size > binCapacity) {
+            throw new IllegalArgumentException("Item of size " + size + " does not fit into an empty bin of capacity "
+                    + binCapacity + " (or more than " + maxBins + " bins are needed)");
+        }
+        add(bin, size);
+        return bin;
+    }
+
+    // Places an item into a specific bin. Bins have to be opened in order, so bin may be at most getBinCount().
+    public void add(int bin, int size) {
+        if (bin > binCount || bin >= maxBins) {
+            throw new IllegalArgumentException("Bin " + bin + " cannot be opened while " + binCount + " bins are open");
+        }
+        if (bestFitIndexed && bin < binCount) {
+            unlinkResidual(bin);
+        }
+        if (bin == binCount) {
+            binCount++;
+        }
+        loads[bin] += size;
+        updateResidual(bin);
+        if (bestFitIndexed) {
+            linkResidual(bin);
+        }
+    }
+
+    // Takes an item back out of a bin. The bin stays open even if it becomes empty.
+    public void remove(int bin, int size) {
+        if (bin >= binCount) {
+            throw new IllegalArgumentException("Bin " + bin + " is not open");
+        }
+        if (bestFitIndexed) {
+            unlinkResidual(bin);
+        }
+        loads[bin] -= size;
+        updateResidual(bin);
+        if (bestFitIndexed) {
+            linkResidual(bin);
+        }
+    }
+
+    // Decodes the items in the given order with First-Fit. binOf receives the bin of every item and the number of
+    // bins used is returned.
+    public int firstFit(int[] sizes, int binCapacity, int[] binOf) {
+        reset(binCapacity, sizes.length);
+        for (int i = 0; i < sizes.length; i++) {
+            binOf[i] = firstFit(sizes[i]);
+        }
+        return binCount;
+    }
+
+    // Decodes the items in the given order with Best-Fit
+    public int bestFit(int[] sizes, int binCapacity, int[] binOf) {
+        reset(binCapacity, sizes.length);
+        for (int i = 0; i < sizes.length; i++) {
+            binOf[i] = bestFit(sizes[i]);
+        }
+        return binCount;
+    }
+
+    // First-Fit Decreasing. Items are ordered with a counting sort over their sizes, so this stays O(n log n)
+    // on top of an O(binCapacity) pass.
+    public int firstFitDecreasing(int[] sizes, int binCapacity, int[] binOf) {
+        int[] order = sortBySizeDescending(sizes, binCapacity);
+        reset(binCapacity, sizes.length);
+        for (int item : order) {
+            binOf[item] = firstFit(sizes[item]);
+        }
+        return binCount;
+    }
+
+    // Item indices ordered by non-increasing size, stable for equal sizes
+    public static int[] sortBySizeDescending(int[] sizes, int binCapacity) {
+        int[] start = new int[binCapacity + 2];
+        for (int size : sizes) {
+            if (size < 0 || size > binCapacity) {
+                throw new IllegalArgumentException("Item of size " + size + " does not fit into an empty bin of capacity "
+                        + binCapacity);
+            }
+            start[binCapacity - size + 1]++;
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+        int[] order = new int[sizes.length];
+        for (int item = 0; item < sizes.length; item++) {
+            order[start[binCapacity - sizes[item]]++] = item;
+        }
+        return order;
+    }
+
+    private void updateResidual(int bin) {
+        int node = leafBase + bin;
+        residualTree[node] = binCapacity - loads[bin];
+        for (node >>= 1; node >= 1; node >>= 1) {
+            int max = Math.max(residualTree[2 * node], residualTree[2 * node + 1]);
+            if (residualTree[node] == max) {
+                break;
+            }
+            residualTree[node] = max;
+        }
+    }
+
+    private void buildBestFitIndex() {
+        residualBase = Integer.highestOneBit(Math.max(binCapacity, 1)) << 1;
+        residualCounts = new int[2 * residualBase];
+        bucketHead = new int[binCapacity + 1];
+        bucketNext = new int[maxBins];
+        bucketPrev = new int[maxBins];
+        Arrays.fill(bucketHead, -1);
+        bestFitIndexed = true;
+        for (int bin = 0; bin < binCount; bin++) {
+            linkResidual(bin);
+        }
+    }
+
+    private void linkResidual(int bin) {
+        int residual = binCapacity - loads[bin];
+        int head = bucketHead[residual];
+        bucketPrev[bin] = -1;
+        bucketNext[bin] = head;
+        if (head >= 0) {
+            bucketPrev[head] = bin;
+        }
+        bucketHead[residual] = bin;
+        for (int node = residualBase + residual; node >= 1; node >>= 1) {
+            residualCounts[node]++;
+        }
+    }
+
+    private void unlinkResidual(int bin) {
+        int residual = binCapacity - loads[bin];
+        int prev = bucketPrev[bin];
+        int next = bucketNext[bin];
+        if (prev >= 0) {
+            bucketNext[prev] = next;
+        } else {
+            bucketHead[residual] = next;
+        }
+        if (next >= 0) {
+            bucketPrev[next] = prev;
+        }
+        for (int node = residualBase + residual; node >= 1; node >>= 1) {
+            residualCounts[node]--;
+        }
+    }
+
+    // Smallest residual value >= size that at least one open bin has, or -1 if there is none
+    private int smallestResidualAtLeast(int size) {
+        if (size > binCapacity) {
+            return -1;
+        }
+        int node = residualBase + Math.max(size, 0);
+        if (residualCounts[node] > 0) {
+            return node - residualBase;
+        }
+        // Walk up until there is a right sibling with open bins, then walk down to its leftmost non-empty leaf
+        while (node > 1) {
+            if ((node & 1) == 0 && residualCounts[node + 1] > 0) {
+                node++;
+                while (node < residualBase) {
+                    node = residualCounts[2 * node] > 0 ? 2 * node : 2 * node + 1;
+                }
+                return node - residualBase;
+            }
+            node >>= 1;
+        }
+        return -1;
+    }
+}
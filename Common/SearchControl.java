@@ -0,0 +1,52 @@
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Cooperative stop signal, incumbent sink and telemetry of one run. The algorithms poll shouldStop() at cheap points of
+// their generation, ant and nest loops and return their best solution so far once it is true, so a run answers within
+// roughly one loop step of its deadline or of cancel(). Every improvement of the best solution is handed to the
+// incumbent listener right away, on the thread that found it. Telemetry is disabled unless one is attached.
+// A control is meant for a single run: cancel() is final and the deadline counts from withDeadline().
+public class SearchControl {
+    private volatile boolean cancelled;
+    private long deadline = Long.MAX_VALUE; // System.nanoTime() value, MAX_VALUE for no deadline
+    private Consumer<SolverResult> incumbentListener;
+    private Telemetry telemetry = Telemetry.DISABLED;
+
+    // Stops the run millis milliseconds from now
+    public SearchControl withDeadline(long millis) {
+        this.deadline = System.nanoTime() + millis * 1_000_000L;
+        return this;
+    }
+
+    // Receives every improved best solution of the run, from whichever thread found it
+    public SearchControl onIncumbent(Consumer<SolverResult> listener) {
+        this.incumbentListener = listener;
+        return this;
+    }
+
+    // Records the convergence and operator costs of the run
+    public SearchControl withTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+        return this;
+    }
+
+    public Telemetry getTelemetry() {
+        return telemetry;
+    }
+
+    // Stops the run at its next check, may be called from any thread
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean shouldStop() {
+        return cancelled || (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0);
+    }
+
+    // Publishes an improved best solution. The result is only built if someone listens.
+    public void improved(Supplier<SolverResult> incumbent) {
+        if (incumbentListener != null) {
+            incumbentListener.accept(incumbent.get());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+import java.util.Map;
+
+// Common entry point of the four algorithms. Every algorithm class exposes one through a static solver() method,
+// which is how BatchRunner finds them without a compile-time dependency on the algorithm directories.
+// A solver must not keep state between calls, the runner solves several jobs with the same solver concurrently.
+public interface Solver {
+    // Short name used in the results and on the command line, e.g. "GA"
+    String getName();
+
+    // Solves the instance from the given seed. config holds algorithm parameters by name, unknown keys are ignored.
+    // budget is the number of generations or iterations, 0 or less uses the algorithm's default. The run also ends
+    // when control says so and then returns its best solution so far, which control receives on every improvement.
+    SolverResult solve(BppInstance instance, Map<String, String> config, long seed, int budget, SearchControl control);
+
+    default SolverResult solve(BppInstance instance, Map<String, String> config, long seed, int budget) {
+        return solve(instance, config, seed, budget, new SearchControl());
+    }
+
+    // Rough running time in milliseconds, only used to start the longest jobs first
+    default double estimateCost(BppInstance instance, Map<String, String> config, int budget) {
+        return instance.getItemCount();
+    }
+
+    static int intParameter(Map<String, String> config, String key, int defaultValue) {
+        String value = config.get(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    static double doubleParameter(Map<String, String> config, String key, double defaultValue) {
+        String value = config.get(key);
+        return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+
+    static boolean booleanParameter(Map<String, String> config, String key, boolean defaultValue) {
+        String value = config.get(key);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+}
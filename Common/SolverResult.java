@@ -0,0 +1,90 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Packing found by a Solver, as the item weights of every bin, plus algorithm specific statistics.
+// Weights rather than item indices are what every algorithm can report, CSGA and HFA move weights around directly.
+public class SolverResult {
+    private final int[][] bins;
+    private final Map<String, Object> stats = new LinkedHashMap<>();
+
+    public SolverResult(int[][] bins) {
+        this.bins = bins;
+    }
+
+    // Builds the bins from the bin index of every item, items with a negative bin are left out
+    public static SolverResult fromAssignment(int[] sizes, int[] binOf, int binCount) {
+        int[] fill = new int[binCount];
+        for (int bin : binOf) {
+            if (bin >= 0) {
+                fill[bin]++;
+            }
+        }
+        int[][] bins = new int[binCount][];
+        for (int bin = 0; bin < binCount; bin++) {
+            bins[bin] = new int[fill[bin]];
+            fill[bin] = 0;
+        }
+        for (int item = 0; item < sizes.length; item++) {
+            int bin = binOf[item];
+            if (bin >= 0) {
+                bins[bin][fill[bin]++] = sizes[item];
+            }
+        }
+        return new SolverResult(bins);
+    }
+
+    public static SolverResult fromBins(List<List<Integer>> bins) {
+        int[][] weights = new int[bins.size()][];
+        for (int bin = 0; bin < weights.length; bin++) {
+            weights[bin] = bins.get(bin).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new SolverResult(weights);
+    }
+
+    public int getBinCount() {
+        return bins.length;
+    }
+
+    public int[][] getBins() {
+        return bins;
+    }
+
+    public Map<String, Object> getStats() {
+        return stats;
+    }
+
+    public SolverResult withStat(String name, Object value) {
+        stats.put(name, value);
+        return this;
+    }
+
+    // True if no bin is over capacity and the bins hold exactly the items of the instance
+    public boolean isFeasible(BppInstance instance) {
+        int total = 0;
+        for (int[] bin : bins) {
+            long load = 0;
+            for (int weight : bin) {
+                load += weight;
+            }
+            if (load > instance.getBinCapacity()) {
+                return false;
+            }
+            total += bin.length;
+        }
+        if (total != instance.getItemCount()) {
+            return false;
+        }
+        int[] packed = new int[total];
+        int next = 0;
+        for (int[] bin : bins) {
+            System.arraycopy(bin, 0, packed, next, bin.length);
+            next += bin.length;
+        }
+        int[] expected = instance.expand();
+        Arrays.sort(packed);
+        Arrays.sort(expected);
+        return Arrays.equals(packed, expected);
+    }
+}
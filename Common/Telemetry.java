@@ -0,0 +1,249 @@
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+// Per-generation convergence and cost figures of one run, kept in a preallocated ring buffer of RECORD_SIZE longs per
+// generation. The solver thread is the only writer: it fills the next slot and then publishes it by advancing
+// published. Readers (TelemetryExporter) copy records up to published without locking and afterwards drop the ones the
+// writer may have overwritten meanwhile, so a slow reader loses old records instead of slowing down the run.
+// Every generation is also committed as a JFR event, see GenerationEvent, so a production run can be inspected with a
+// flight recording and no profiler attached. The event object is only created while a recording has the event enabled,
+// so without one endGeneration allocates nothing. The event type is looked up only once JFR is initialized, the lookup
+// would otherwise initialize JFR in every run.
+// best and mean are in each algorithm's own fitness units: bins for GA and ACO, 1 / waste for CSGA (higher is better)
+// and the penalised bin count for HFA. diversity is the number of distinct configurations for GA and the number of
+// distinct fitness values in the population otherwise.
+// Operator times are sampled: each call is timed with probability 1 / SAMPLE_INTERVAL and then counted SAMPLE_INTERVAL
+// times, which keeps two System.nanoTime() calls off most operator invocations. The draw is per thread, so GA pool
+// workers sample independently. Whole phases that run once per generation are timed always. The calls of every
+// operator are counted exactly, in LongAdders, since the GA's parallel MGG reports them from several threads at once.
+// DISABLED records nothing, every method returns right away, and it never touches the thread MXBean.
+public class Telemetry {
+    public enum Operator {
+        CONSTRUCT,        // ACO ant construction
+        CROSSOVER,        // GA crossover, CSGA crossover and mutation
+        MUTATE,           // GA mutation
+        REPAIR,           // GA optimizeBinFilling
+        EVALUATE,         // CSGA fitness lookup, HFA evaluation phase
+        LOCAL_SEARCH,     // CSGA local search
+        MOVE,             // HFA move phase
+        PHEROMONE_UPDATE  // ACO global update and delta merge
+    }
+
+    public static final Telemetry DISABLED = new Telemetry();
+
+    // Record layout, followed by the nanoseconds of every operator in Operator order
+    static final int GENERATION = 0;
+    static final int ELAPSED_NANOS = 1;
+    static final int BEST = 2; // Double bits
+    static final int MEAN = 3; // Double bits
+    static final int DIVERSITY = 4;
+    static final int EVALUATIONS = 5;
+    static final int DECODES = 6;
+    static final int ALLOCATED_BYTES = 7; // Allocated by the solver thread, pool workers are not included
+    static final int OPERATORS = 8;
+    static final int CALLS = OPERATORS + Operator.values().length; // Followed by the calls of every operator
+    static final int RECORD_SIZE = CALLS + Operator.values().length;
+
+    private static final int SAMPLE_INTERVAL = 8; // Power of two
+    private static volatile EventType generationEvent; // Looked up by beginEvent once JFR is initialized
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final boolean enabled;
+    private final String algorithm;
+    private final String instance;
+    private final long[] ring;
+    private final int capacity; // Records, a power of two
+    private final AtomicLong published = new AtomicLong(); // Records written so far
+    private final LongAdder[] calls;
+    private final AtomicLongArray operatorNanos = new AtomicLongArray(Operator.values().length);
+    private final long[] reportedNanos = new long[Operator.values().length];
+    private final long[] reportedCalls = new long[Operator.values().length];
+    private final long start;
+    private long reportedAllocation;
+    private GenerationEvent event; // Current generation's event, null while no recording has it enabled
+
+    private Telemetry() {
+        this.enabled = false;
+        this.algorithm = "";
+        this.instance = "";
+        this.ring = new long[0];
+        this.capacity = 0;
+        this.calls = new LongAdder[0];
+        this.start = 0;
+    }
+
+    // Keeps the last capacity generations, capacity is rounded up to a power of two
+    public Telemetry(String algorithm, String instance, int capacity) {
+        this.enabled = true;
+        this.algorithm = algorithm;
+        this.instance = instance;
+        this.capacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.ring = new long[this.capacity * RECORD_SIZE];
+        this.calls = new LongAdder[Operator.values().length];
+        for (int op = 0; op < calls.length; op++) {
+            calls[op] = new LongAdder();
+        }
+        this.start = System.nanoTime();
+        this.reportedAllocation = allocatedBytes();
+        beginEvent();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getInstance() {
+        return instance;
+    }
+
+    // Start of a sampled operator call, pass the result to stop
+    public long start(Operator operator) {
+        if (!enabled) {
+            return NOT_SAMPLED;
+        }
+        calls[operator.ordinal()].increment();
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    public void stop(Operator operator, long start) {
+        if (start != NOT_SAMPLED) {
+            operatorNanos.addAndGet(operator.ordinal(), (System.nanoTime() - start) * SAMPLE_INTERVAL);
+        }
+    }
+
+    // Start of a phase that runs once per generation and is always timed, pass the result to stopPhase
+    public long startPhase() {
+        return enabled ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    public void stopPhase(Operator operator, long start) {
+        if (start != NOT_SAMPLED) {
+            operatorNanos.addAndGet(operator.ordinal(), System.nanoTime() - start);
+            calls[operator.ordinal()].increment();
+        }
+    }
+
+    // Publishes the figures of a finished generation, operator times are those since the previous generation
+    public void endGeneration(int generation, double best, double mean, int diversity, long evaluations, long decodes) {
+        if (!enabled) {
+            return;
+        }
+        long sequence = published.get();
+        int offset = (int) (sequence & (capacity - 1)) * RECORD_SIZE;
+        long allocation = allocatedBytes();
+        ring[offset + GENERATION] = generation;
+        ring[offset + ELAPSED_NANOS] = System.nanoTime() - start;
+        ring[offset + BEST] = Double.doubleToRawLongBits(best);
+        ring[offset + MEAN] = Double.doubleToRawLongBits(mean);
+        ring[offset + DIVERSITY] = diversity;
+        ring[offset + EVALUATIONS] = evaluations;
+        ring[offset + DECODES] = decodes;
+        ring[offset + ALLOCATED_BYTES] = allocation - reportedAllocation;
+        reportedAllocation = allocation;
+        for (int op = 0; op < reportedNanos.length; op++) {
+            long nanos = operatorNanos.get(op);
+            ring[offset + OPERATORS + op] = nanos - reportedNanos[op];
+            reportedNanos[op] = nanos;
+            long count = calls[op].sum();
+            ring[offset + CALLS + op] = count - reportedCalls[op];
+            reportedCalls[op] = count;
+        }
+        published.lazySet(sequence + 1); // Orders the record writes before the publication
+
+        if (event != null && event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.instance = instance;
+            event.generation = generation;
+            event.best = best;
+            event.mean = mean;
+            event.diversity = diversity;
+            event.evaluations = evaluations;
+            event.decodes = decodes;
+            event.allocatedBytes = ring[offset + ALLOCATED_BYTES];
+            event.crossoverNanos = ring[offset + OPERATORS + Operator.CROSSOVER.ordinal()];
+            event.mutateNanos = ring[offset + OPERATORS + Operator.MUTATE.ordinal()];
+            event.repairNanos = ring[offset + OPERATORS + Operator.REPAIR.ordinal()];
+            event.evaluateNanos = ring[offset + OPERATORS + Operator.EVALUATE.ordinal()];
+            event.constructNanos = ring[offset + OPERATORS + Operator.CONSTRUCT.ordinal()];
+            event.localSearchNanos = ring[offset + OPERATORS + Operator.LOCAL_SEARCH.ordinal()];
+            event.moveNanos = ring[offset + OPERATORS + Operator.MOVE.ordinal()];
+            event.pheromoneNanos = ring[offset + OPERATORS + Operator.PHEROMONE_UPDATE.ordinal()];
+            event.commit();
+        }
+        beginEvent();
+    }
+
+    // Starts the event of the next generation, which lasts until its endGeneration
+    private void beginEvent() {
+        if (generationEventEnabled()) {
+            event = new GenerationEvent();
+            event.begin();
+        } else {
+            event = null;
+        }
+    }
+
+    private static boolean generationEventEnabled() {
+        if (!FlightRecorder.isInitialized()) {
+            return false;
+        }
+        EventType type = generationEvent;
+        if (type == null) {
+            type = EventType.getEventType(GenerationEvent.class);
+            generationEvent = type;
+        }
+        return type.isEnabled();
+    }
+
+    // Records written so far
+    public long getPublished() {
+        return published.get();
+    }
+
+    // Copies the records from sequence on into records, RECORD_SIZE longs each, and returns the sequence of the first
+    // copied record. Records the writer has overwritten are skipped, so the result can be larger than sequence.
+    // Returns the number of records copied through count[0].
+    long read(long sequence, long[] records, int[] count) {
+        long end = published.get();
+        long first = Math.max(sequence, end - capacity);
+        int n = (int) Math.min(end - first, records.length / RECORD_SIZE);
+        for (int i = 0; i < n; i++) {
+            int offset = (int) ((first + i) & (capacity - 1)) * RECORD_SIZE;
+            System.arraycopy(ring, offset, records, i * RECORD_SIZE, RECORD_SIZE);
+        }
+        // The writer may have lapped the reader while it copied. Record s is overwritten from the moment the writer
+        // starts on record s + capacity, so everything up to published - capacity may be torn and is dropped.
+        VarHandle.loadLoadFence();
+        long overwritten = published.get() - capacity + 1;
+        int torn = (int) Math.max(0, Math.min(n, overwritten - first));
+        if (torn > 0) {
+            System.arraycopy(records, torn * RECORD_SIZE, records, 0, (n - torn) * RECORD_SIZE);
+        }
+        count[0] = n - torn;
+        return first + torn;
+    }
+
+    private static long allocatedBytes() {
+        return ThreadAllocation.THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    // Initialized on the first allocatedBytes call, which only enabled recorders make
+    private static class ThreadAllocation {
+        // Looked up once, ManagementFactory.getThreadMXBean() allocates on every call
+        static final com.sun.management.ThreadMXBean THREADS =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+}
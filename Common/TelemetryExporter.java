@@ -0,0 +1,116 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Samples the ring buffers of the registered runs every interval on a background thread and appends their new
+// generations to a tab-separated file, one line per generation. The solver threads never wait for the exporter: a
+// run that fills its ring faster than it is sampled loses its oldest records, which shows up as a jump in generation.
+// Columns: algorithm, instance, generation, elapsed ms, best, mean, diversity, evaluations, evaluations per second
+// since the previous exported generation, decodes, allocated bytes, the milliseconds of every Telemetry.Operator and
+// the number of calls of every operator.
+public class TelemetryExporter implements AutoCloseable {
+    private static final int BATCH = 256; // Records copied per ring and read
+
+    private final PrintWriter out;
+    private final ScheduledExecutorService sampler;
+    // Next sequence and elapsed time of the last exported record of every registered run
+    private final Map<Telemetry, long[]> cursors = new ConcurrentHashMap<>();
+    private final long[] records = new long[BATCH * Telemetry.RECORD_SIZE];
+    private final int[] count = new int[1];
+
+    public TelemetryExporter(Path file, long intervalMillis) throws IOException {
+        this.out = new PrintWriter(Files.newBufferedWriter(file));
+        StringBuilder header = new StringBuilder("algorithm\tinstance\tgeneration\tms\tbest\tmean\tdiversity\tevaluations"
+                + "\tevaluations/s\tdecodes\tallocated");
+        for (Telemetry.Operator operator : Telemetry.Operator.values()) {
+            header.append('\t').append(operator.name().toLowerCase()).append(" ms");
+        }
+        for (Telemetry.Operator operator : Telemetry.Operator.values()) {
+            header.append('\t').append(operator.name().toLowerCase()).append(" calls");
+        }
+        out.println(header);
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "telemetry-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void register(Telemetry telemetry) {
+        if (telemetry.isEnabled()) {
+            cursors.put(telemetry, new long[2]);
+        }
+    }
+
+    // Exports what is left of a finished run and stops sampling it
+    public synchronized void finish(Telemetry telemetry) {
+        long[] cursor = cursors.remove(telemetry);
+        if (cursor != null) {
+            drain(telemetry, cursor);
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdown();
+        try {
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (Telemetry telemetry : cursors.keySet()) {
+                finish(telemetry);
+            }
+            out.close();
+        }
+    }
+
+    private synchronized void sample() {
+        cursors.forEach(this::drain);
+        out.flush();
+    }
+
+    private void drain(Telemetry telemetry, long[] cursor) {
+        while (cursor[0] < telemetry.getPublished()) {
+            long first = telemetry.read(cursor[0], records, count);
+            for (int i = 0; i < count[0]; i++) {
+                write(telemetry, i * Telemetry.RECORD_SIZE, cursor);
+            }
+            cursor[0] = first + count[0];
+        }
+    }
+
+    private void write(Telemetry telemetry, int offset, long[] cursor) {
+        long elapsed = records[offset + Telemetry.ELAPSED_NANOS];
+        long evaluations = records[offset + Telemetry.EVALUATIONS];
+        double rate = elapsed > cursor[1] ? 1e9 * evaluations / (elapsed - cursor[1]) : 0;
+        cursor[1] = elapsed;
+        StringBuilder line = new StringBuilder();
+        line.append(telemetry.getAlgorithm()).append('\t').append(telemetry.getInstance())
+                .append('\t').append(records[offset + Telemetry.GENERATION])
+                .append('\t').append(String.format("%.3f", elapsed / 1e6))
+                .append('\t').append(Double.longBitsToDouble(records[offset + Telemetry.BEST]))
+                .append('\t').append(Double.longBitsToDouble(records[offset + Telemetry.MEAN]))
+                .append('\t').append(records[offset + Telemetry.DIVERSITY])
+                .append('\t').append(evaluations)
+                .append('\t').append(String.format("%.0f", rate))
+                .append('\t').append(records[offset + Telemetry.DECODES])
+                .append('\t').append(records[offset + Telemetry.ALLOCATED_BYTES]);
+        for (int op = 0; op < Telemetry.Operator.values().length; op++) {
+            line.append('\t').append(String.format("%.3f", records[offset + Telemetry.OPERATORS + op] / 1e6));
+        }
+        for (int op = 0; op < Telemetry.Operator.values().length; op++) {
+            line.append('\t').append(records[offset + Telemetry.CALLS + op]);
+        }
+        out.println(line);
+    }
+}
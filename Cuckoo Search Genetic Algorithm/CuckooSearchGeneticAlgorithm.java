@@ -1,35 +1,108 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays; // for Arrays.asList() and Arrays.stream()
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 public class CuckooSearchGeneticAlgorithm {
 
     private List<int[]> nests;
     private List<Double> fitness;
+    private List<DecodeCheckpoints> checkpoints; // Decode checkpoints of every nest
     private int numNests;
     private int maxGenerations;
+    // The nest with the fewest bins so far. Fitness also counts the waste of the bins, see getFitness, so the fittest
+    // nest can need more bins than an earlier one and the incumbent is tracked by bin count instead.
     private int[] bestNest;
-    private double bestFitness;
+    private int bestBinCount = Integer.MAX_VALUE; // Bins of the First-Fit packing of bestNest
     private Random random;
     private int binCapacity;
     private List<Integer> items;
     private double mutationRate = 0.15;
+    private final PackingEngine packer = new PackingEngine();
+    private final int lowerBound; // The search stops once the best nest packs into this many bins, it is optimal then
+    private SearchControl control = new SearchControl();
+    // Nests repeat a lot once the population converges (a crossover at point 0 copies the other parent), so the
+    // fitness of recently seen nests is kept instead of decoding them again
+    private static final int FITNESS_CACHE_SIZE = 4096;
+    private static final boolean PRINT_CACHE_STATISTICS = false; // One line per generation instead of one per run
+    private final FitnessCache fitnessCache = new FitnessCache(FITNESS_CACHE_SIZE);
+    private long fitnessLookups;
+    private long evaluationsSaved;
+    // A child shares the start of its sequence with the nest it was made from, and First-Fit leaves the bins in the
+    // same state after that shared prefix, so every nest keeps snapshots of its bin loads and a child resumes decoding
+    // at the last snapshot before its first changed position. A snapshot copies every open bin, so the next one is
+    // taken as many positions later as there are bins open, at least MIN_CHECKPOINT_INTERVAL: the copies of a decode
+    // then add up to O(n) and the checkpoints are spaced geometrically, dense at the start and sparse at the end.
+    private static final int MIN_CHECKPOINT_INTERVAL = 16;
+    private static final int LOCAL_SEARCH_MOVES = 20; // Swap/insert moves tried on the best nest per generation
+    private int[] lastDecoded; // The nest whose checkpoints the last decode produced
+    private DecodeCheckpoints lastCheckpoints;
+    private long positionsDecoded;
+    private long positionsRequested;
+    // Crossover and mutation copy weights between nests, so a child can hold some weights twice and miss others.
+    // repair restores the item multiset using the distinct weights of the instance, ascending, and how many items
+    // have each of them.
+    private int[] weightClasses;
+    private int[] weightCounts;
+    private int[] remaining;
+    private int[] surplusPositions;
+
+    // Bin loads before positions[k] of a First-Fit decode, plus the waste up to there, for the first count
+    // checkpoints. The load arrays are never modified, so a child shares those of its common prefix with its parent.
+    static class DecodeCheckpoints {
+        int[] positions = new int[8];
+        int[][] loads = new int[8][];
+        int[] waste = new int[8];
+        int count;
+        int totalWaste;
+        int binCount; // Bins of the whole packing
+
+        void add(int position, int[] binLoads, int wasteSoFar) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+                loads = Arrays.copyOf(loads, count * 2);
+                waste = Arrays.copyOf(waste, count * 2);
+            }
+            positions[count] = position;
+            loads[count] = binLoads;
+            waste[count++] = wasteSoFar;
+        }
+
+        // Index of the last checkpoint at or before position, -1 if there is none
+        int lastAtOrBefore(int position) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (positions[middle] <= position) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low - 1;
+        }
+    }
 
     public CuckooSearchGeneticAlgorithm(int binCapacity, List<Integer> items, int numNests, int maxGenerations) {
+        this(binCapacity, items, numNests, maxGenerations, new Random());
+    }
+
+    public CuckooSearchGeneticAlgorithm(int binCapacity, List<Integer> items, int numNests, int maxGenerations, Random random) {
         this.binCapacity = binCapacity;
         this.items = items;
         this.numNests = numNests;
         this.maxGenerations = maxGenerations;
         this.fitness = new ArrayList<>();
         this.nests = new ArrayList<>();
-        this.bestFitness = Double.MAX_VALUE;
-        this.random = new Random();
+        this.checkpoints = new ArrayList<>();
+        this.random = random;
+        this.lowerBound = LowerBounds.of(items.stream().mapToInt(Integer::intValue).toArray(), binCapacity);
+        indexWeights();
         initializeNests();
     }
 
@@ -39,15 +112,24 @@ public class CuckooSearchGeneticAlgorithm {
             nests.add(newNest);
             double fitnessValue = getFitness(newNest);
             fitness.add(fitnessValue);
-            if (fitnessValue > bestFitness) { // Maximize fitness
-                bestFitness = fitnessValue;
+            checkpoints.add(checkpointsOf(newNest));
+            int bins = checkpoints.get(i).binCount;
+            if (bins < bestBinCount) {
+                bestBinCount = bins;
                 bestNest = newNest.clone();  // Ensure this is correctly cloned
             }
         }
-        // Ensure there is a default non-null bestNest even if no fitness update occurs
-        if (bestNest == null && !nests.isEmpty()) {
-            bestNest = nests.get(0).clone();
+    }
+
+    private void indexWeights() {
+        int[] sorted = items.stream().mapToInt(Integer::intValue).sorted().toArray();
+        weightClasses = Arrays.stream(sorted).distinct().toArray();
+        weightCounts = new int[weightClasses.length];
+        for (int weight : sorted) {
+            weightCounts[Arrays.binarySearch(weightClasses, weight)]++;
         }
+        remaining = new int[weightClasses.length];
+        surplusPositions = new int[sorted.length];
     }
 
     private int[] generateNewSolution() {
@@ -55,69 +137,181 @@ public class CuckooSearchGeneticAlgorithm {
         for (int i = 0; i < items.size(); i++) {
             newSolution[i] = items.get(i);
         }
-        Collections.shuffle(Arrays.asList(newSolution)); // Correct shuffling of an Integer array
+        Collections.shuffle(Arrays.asList(newSolution), random); // Correct shuffling of an Integer array
         return Arrays.stream(newSolution).mapToInt(Integer::intValue).toArray(); // Convert Integer[] back to int[]
     }
 
 
     private double getFitness(int[] solution) {
-        int waste = calculateWaste(solution);
-        return waste == 0 ? Double.MAX_VALUE : 1.0 / waste;
+        return getFitness(solution, null, null);
     }
 
-    private int calculateWaste(int[] solution) {
-        // Simulate the packing process and calculate the waste
+    // Fitness of a solution derived from parentNest, decoded from the parent's last checkpoint before the first
+    // position where the two differ
+    private double getFitness(int[] solution, int[] parentNest, DecodeCheckpoints parentCheckpoints) {
+        return fitnessCache.getFitness(solution, nest -> {
+            int changedFrom = parentNest == null ? 0 : Arrays.mismatch(nest, parentNest);
+            lastCheckpoints = decode(nest, parentCheckpoints, changedFrom == -1 ? nest.length : changedFrom);
+            lastDecoded = nest;
+            int waste = lastCheckpoints.totalWaste;
+            return waste == 0 ? Double.MAX_VALUE : 1.0 / waste;
+        });
+    }
+
+    // Checkpoints of a nest that was just evaluated, or of a full decode if its fitness came from the cache
+    private DecodeCheckpoints checkpointsOf(int[] nest) {
+        return nest == lastDecoded ? lastCheckpoints : decode(nest, null, 0);
+    }
+
+    // Simulate the packing process and calculate the waste. Positions before changedFrom are taken from the parent's
+    // checkpoints, the rest is packed with First-Fit and checkpointed along the way.
+    DecodeCheckpoints decode(int[] solution, DecodeCheckpoints parent, int changedFrom) {
+        DecodeCheckpoints result = new DecodeCheckpoints();
+        int start = 0;
         int totalWaste = 0;
-        List<List<Integer>> bins = new ArrayList<>();
-        for (int item : solution) {
-            boolean placed = false;
-            for (List<Integer> bin : bins) {
-                int currentWeight = bin.stream().mapToInt(Integer::intValue).sum();
-                if (currentWeight + item <= binCapacity) {
-                    bin.add(item);
-                    placed = true;
-                    break;
-                }
+        int nextCheckpoint = 0;
+        int checkpoint = parent == null ? -1 : parent.lastAtOrBefore(changedFrom);
+        if (checkpoint < 0) {
+            packer.reset(binCapacity, solution.length);
+        } else {
+            for (int k = 0; k <= checkpoint; k++) {
+                result.add(parent.positions[k], parent.loads[k], parent.waste[k]);
+            }
+            int[] loads = parent.loads[checkpoint];
+            packer.restore(binCapacity, solution.length, loads, loads.length);
+            start = parent.positions[checkpoint];
+            totalWaste = parent.waste[checkpoint];
+            nextCheckpoint = start + Math.max(MIN_CHECKPOINT_INTERVAL, loads.length);
+        }
+        for (int position = start; position < solution.length; position++) {
+            if (position == nextCheckpoint) {
+                int[] loads = new int[packer.getBinCount()];
+                packer.copyLoads(loads);
+                result.add(position, loads, totalWaste);
+                nextCheckpoint = position + Math.max(MIN_CHECKPOINT_INTERVAL, loads.length);
             }
-            if (!placed) {
-                List<Integer> newBin = new ArrayList<>();
-                newBin.add(item);
-                bins.add(newBin);
+            int item = solution[position];
+            int binsBefore = packer.getBinCount();
+            packer.firstFit(item);
+            if (packer.getBinCount() > binsBefore) {
                 totalWaste += binCapacity - item;
             }
         }
-        return totalWaste;
+        result.totalWaste = totalWaste;
+        result.binCount = packer.getBinCount();
+        positionsDecoded += solution.length - start;
+        positionsRequested += solution.length;
+        return result;
+    }
+
+    // Tries random swap and insert moves on a nest and keeps every move that improves it. A move only changes the
+    // sequence from its first position onwards, so it is decoded incrementally like a crossover child.
+    private void localSearch(int index) {
+        int length = nests.get(index).length;
+        for (int move = 0; move < LOCAL_SEARCH_MOVES && length > 1 && !provenOptimal() && !control.shouldStop(); move++) {
+            int[] nest = nests.get(index);
+            int first = random.nextInt(length);
+            int second = random.nextInt(length);
+            if (first == second) {
+                continue;
+            }
+            int from = Math.min(first, second);
+            int to = Math.max(first, second);
+            int[] candidate = nest.clone();
+            if (random.nextBoolean()) {
+                candidate[from] = nest[to];
+                candidate[to] = nest[from];
+            } else {
+                // Insert the item at position to in front of position from
+                System.arraycopy(nest, from, candidate, from + 1, to - from);
+                candidate[from] = nest[to];
+            }
+            double candidateFitness = getFitness(candidate, nest, checkpoints.get(index));
+            if (candidateFitness > fitness.get(index)) {
+                replaceNest(index, candidate, candidateFitness);
+            }
+        }
+    }
+
+    private void replaceNest(int index, int[] nest, double nestFitness) {
+        nests.set(index, nest);
+        fitness.set(index, nestFitness);
+        checkpoints.set(index, checkpointsOf(nest));
+        int bins = checkpoints.get(index).binCount;
+        if (bins < bestBinCount) {
+            bestBinCount = bins;
+            bestNest = nest.clone();  // Update bestNest
+            publishIncumbent();
+        }
+    }
+
+    // Stops startSearch before the next nest or local search move once control says so, the best nest so far is kept.
+    // control also receives the initial best nest and every improvement of it.
+    public void setSearchControl(SearchControl control) {
+        this.control = control;
+    }
+
+    private void publishIncumbent() {
+        int[] nest = bestNest;
+        control.improved(() -> SolverResult.fromBins(packItems(nest)));
     }
 
     public void startSearch() {
-        for (int gen = 0; gen < maxGenerations; gen++) {
-            for (int i = 0; i < numNests; i++) {
+        Telemetry telemetry = control.getTelemetry();
+        publishIncumbent();
+        for (int gen = 0; gen < maxGenerations && !provenOptimal() && !control.shouldStop(); gen++) {
+            fitnessCache.resetStatistics();
+            for (int i = 0; i < numNests && !provenOptimal() && !control.shouldStop(); i++) {
+                long start = telemetry.start(Telemetry.Operator.CROSSOVER);
                 int[] newSol = performCrossoverAndMutation(nests.get(i));
-                double newFit = getFitness(newSol);
+                telemetry.stop(Telemetry.Operator.CROSSOVER, start);
+                start = telemetry.start(Telemetry.Operator.EVALUATE);
+                double newFit = getFitness(newSol, nests.get(i), checkpoints.get(i));
+                telemetry.stop(Telemetry.Operator.EVALUATE, start);
                 if (newFit > fitness.get(i)) {
-                    nests.set(i, newSol);
-                    fitness.set(i, newFit);
-                    if (newFit > bestFitness) {
-                        bestFitness = newFit;
-                        bestNest = newSol.clone();  // Update bestNest
+                    replaceNest(i, newSol, newFit);
+                }
+            }
+            if (LOCAL_SEARCH_MOVES > 0 && !provenOptimal() && !control.shouldStop()) {
+                int best = 0;
+                for (int i = 1; i < numNests; i++) {
+                    if (fitness.get(i) > fitness.get(best)) {
+                        best = i;
                     }
                 }
+                long start = telemetry.startPhase();
+                localSearch(best);
+                telemetry.stopPhase(Telemetry.Operator.LOCAL_SEARCH, start);
+            }
+            if (telemetry.isEnabled()) {
+                // Bin counts like the other solvers report, fitness is in 1 / waste units
+                double meanBins = checkpoints.stream().mapToInt(c -> c.binCount).average().orElse(0);
+                int distinct = (int) fitness.stream().distinct().count();
+                telemetry.endGeneration(gen, bestBinCount, meanBins, distinct, fitnessCache.getLookups(),
+                        fitnessCache.getLookups() - fitnessCache.getHits());
+            }
+            fitnessLookups += fitnessCache.getLookups();
+            evaluationsSaved += fitnessCache.getHits();
+            if (PRINT_CACHE_STATISTICS) {
+                System.out.printf("Generation %d: fitness cache hit rate %.1f%%, %d evaluations saved%n",
+                        gen, 100 * fitnessCache.getHitRate(), fitnessCache.getHits());
             }
         }
     }
 
     private int[] performCrossoverAndMutation(int[] nest) {
-        // Perform k-tournament selection to find another nest
+        // Perform k-tournament selection to find another nest, comparing the stored fitness of every contestant
         int k = 5;  // Tournament size
-        List<int[]> tournament = new ArrayList<>();
+        int winner = -1;
         for (int i = 0; i < k; i++) {
-            tournament.add(nests.get(random.nextInt(nests.size())));
+            int contestant = random.nextInt(nests.size());
+            if (winner == -1 || fitness.get(contestant) > fitness.get(winner)) {
+                winner = contestant;
+            }
         }
 
         // Choose the best nest from the tournament
-        int[] anotherNest = tournament.stream()
-                .max(Comparator.comparingDouble(this::getFitness))
-                .orElse(nest);
+        int[] anotherNest = winner != -1 ? nests.get(winner) : nest;
 
         // Perform two-point crossover
         int crossPoint = random.nextInt(nest.length);
@@ -130,71 +324,131 @@ public class CuckooSearchGeneticAlgorithm {
             int mutationPoint = random.nextInt(child.length);
             child[mutationPoint] = items.get(random.nextInt(items.size()));
         }
+        repair(child, nest);
         return child;
     }
 
+    // Makes the child a permutation of the instance's items again. Every weight is kept, from the front, as long as
+    // the instance has copies of it left, and the positions of the surplus copies receive the missing weights in the
+    // order the parent nest holds them. The prefix the child took from the nest is already consistent, so it stays
+    // as it is unless the mutation hit it, and the child can still be decoded from the nest's checkpoints.
+    private void repair(int[] child, int[] nest) {
+        System.arraycopy(weightCounts, 0, remaining, 0, weightCounts.length);
+        int surplus = 0;
+        for (int position = 0; position < child.length; position++) {
+            int weight = Arrays.binarySearch(weightClasses, child[position]);
+            if (remaining[weight] > 0) {
+                remaining[weight]--;
+            } else {
+                surplusPositions[surplus++] = position;
+            }
+        }
+        for (int position = 0, next = 0; next < surplus; position++) {
+            int weight = Arrays.binarySearch(weightClasses, nest[position]);
+            if (remaining[weight] > 0) {
+                remaining[weight]--;
+                child[surplusPositions[next++]] = nest[position];
+            }
+        }
+    }
+
+    // True if the best nest packs into lowerBound bins. Every nest is a permutation of the items, see repair, so the
+    // packing is then an optimal solution and the search stops before the next nest or local search move.
+    private boolean provenOptimal() {
+        return bestBinCount <= lowerBound;
+    }
+
     public List<List<Integer>> packItems(int[] bestNest) {
         List<List<Integer>> bins = new ArrayList<>();
+        packer.reset(binCapacity, bestNest.length);
         for (int itemWeight : bestNest) {
-            boolean placed = false;
-            for (List<Integer> bin : bins) {
-                int currentBinWeight = bin.stream().mapToInt(Integer::intValue).sum();
-                if (currentBinWeight + itemWeight <= binCapacity) {
-                    bin.add(itemWeight);
-                    placed = true;
-                    break;
-                }
-            }
-            if (!placed) {
-                List<Integer> newBin = new ArrayList<>();
-                newBin.add(itemWeight);
-                bins.add(newBin);
+            int bin = packer.firstFit(itemWeight);
+            if (bin == bins.size()) {
+                bins.add(new ArrayList<>());
             }
+            bins.get(bin).add(itemWeight);
         }
         return bins;
     }
 
-    public static void main(String[] args) {
+    // Entry point for the batch runner. Config key: nests. The budget is the number of generations.
+    public static Solver solver() {
+        return new Solver() {
+            @Override
+            public String getName() {
+                return "CSGA";
+            }
+
+            @Override
+            public SolverResult solve(BppInstance instance, Map<String, String> config, long seed, int budget,
+                                      SearchControl control) {
+                List<Integer> items = Arrays.stream(instance.expand()).boxed().toList();
+                CuckooSearchGeneticAlgorithm csga = new CuckooSearchGeneticAlgorithm(instance.getBinCapacity(), items,
+                        Solver.intParameter(config, "nests", 30), budget > 0 ? budget : 100, new Random(seed));
+                csga.setSearchControl(control);
+                csga.startSearch();
+                return SolverResult.fromBins(csga.packItems(csga.bestNest))
+                        .withStat("cacheHitRate", (double) csga.evaluationsSaved / Math.max(csga.fitnessLookups, 1))
+                        .withStat("decodedFraction", (double) csga.positionsDecoded / Math.max(csga.positionsRequested, 1));
+            }
+
+            @Override
+            public double estimateCost(BppInstance instance, Map<String, String> config, int budget) {
+                return 1e-4 * instance.getItemCount() * (budget > 0 ? budget : 100)
+                        * (Solver.intParameter(config, "nests", 30) + LOCAL_SEARCH_MOVES);
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
 
         String filePath = "Cuckoo Search Genetic Algorithm/BPP.txt";
-        List<Object[]> testCases = parseBPPFile(filePath);
         long startTime = System.currentTimeMillis();
 
 
-        if (testCases.isEmpty()) {
-            System.out.println("No test cases found in the file.");
-            return;
-        }
+        try (BppReader reader = new BppReader(Path.of(filePath))) {
+            if (!reader.hasNext()) {
+                System.out.println("No test cases found in the file.");
+                return;
+            }
 
 
 
-        for (Object[] testCase : testCases) {
-            String datasetName = (String) testCase[0];  // Dataset name
-            List<Integer> items = (List<Integer>) testCase[1];  // List of items for the bin packing problem
+            while (reader.hasNext()) {
+                BppInstance testCase = reader.next();
+                String datasetName = testCase.getName();  // Dataset name
+                List<Integer> items = Arrays.stream(testCase.expand()).boxed().toList();  // List of items for the bin packing problem
 
-            System.out.println("Starting optimization for dataset: " + datasetName);
+                System.out.println("Starting optimization for dataset: " + datasetName);
 
-            // Initialize the Cuckoo Search Genetic Algorithm with specified parameters
-            CuckooSearchGeneticAlgorithm csga = new CuckooSearchGeneticAlgorithm(10000, items, 30, 100);
-            csga.startSearch();  // Start the search process
+                // Initialize the Cuckoo Search Genetic Algorithm with specified parameters
+                CuckooSearchGeneticAlgorithm csga = new CuckooSearchGeneticAlgorithm(testCase.getBinCapacity(), items, 30, 100);
+                csga.startSearch();  // Start the search process
+                System.out.printf("Fitness cache: hit rate %.1f%%, %d evaluations saved, %.1f per generation%n",
+                        100.0 * csga.evaluationsSaved / Math.max(csga.fitnessLookups, 1), csga.evaluationsSaved,
+                        (double) csga.evaluationsSaved / csga.maxGenerations);
+                System.out.printf("Incremental decoding: %.1f%% of the positions decoded%n",
+                        100.0 * csga.positionsDecoded / Math.max(csga.positionsRequested, 1));
 
-            // Check if a solution was found (bestNest should be non-null after startSearch if a solution was identified)
-            if (csga.bestNest != null) {
-                // Use the best nest found to pack items into bins
-                List<List<Integer>> bestConfiguration = csga.packItems(csga.bestNest);
-                System.out.println("Number of bins used: " + bestConfiguration.size());  // Print the number of bins used
-                for (int j = 0; j < bestConfiguration.size(); j++) {
-                    List<Integer> binItems = bestConfiguration.get(j);
-                    int binWeight = binItems.stream().mapToInt(Integer::intValue).sum();
-                    System.out.print("Bin " + (j + 1) + ": " + binItems);  // Print items in each bin
-                    System.out.println(" - Bin weight: " + binWeight + " out of " + csga.binCapacity);  // Print the weight of each bin
+                // Check if a solution was found (bestNest should be non-null after startSearch if a solution was identified)
+                if (csga.bestNest != null) {
+                    // Use the best nest found to pack items into bins
+                    List<List<Integer>> bestConfiguration = csga.packItems(csga.bestNest);
+                    System.out.println("Number of bins used: " + bestConfiguration.size()
+                            + (csga.provenOptimal() ? " (proven optimal)" : ""));  // Print the number of bins used
+                    for (int j = 0; j < bestConfiguration.size(); j++) {
+                        List<Integer> binItems = bestConfiguration.get(j);
+                        int binWeight = binItems.stream().mapToInt(Integer::intValue).sum();
+                        System.out.print("Bin " + (j + 1) + ": " + binItems);  // Print items in each bin
+                        System.out.println(" - Bin weight: " + binWeight + " out of " + csga.binCapacity);  // Print the weight of each bin
+                    }
+                } else {
+                    System.out.println("No optimal configuration found for dataset: " + datasetName);
                 }
-            } else {
-                System.out.println("No optimal configuration found for dataset: " + datasetName);
-            }
 
-            System.out.println("Optimization completed for dataset: " + datasetName);
-            System.out.println();  // Print a blank line for better separation between test cases
+                System.out.println("Optimization completed for dataset: " + datasetName);
+                System.out.println();  // Print a blank line for better separation between test cases
+            }
         }
 
         long stopTime = System.currentTimeMillis();  // Stop time after all optimizations
@@ -202,36 +456,4 @@ public class CuckooSearchGeneticAlgorithm {
         System.out.println("Total elapsed time: " + elapsedTime + " milliseconds");
     }
 
-    private static List<Object[]> parseBPPFile(String filePath) {
-        List<Object[]> testCases = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            List<Integer> items = null;
-            String testName = null;
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("TEST")) {
-                    if (items != null) {
-                        testCases.add(new Object[]{testName, new ArrayList<>(items)});
-                    }
-                    testName = line.trim(); // Save the test case name
-                    items = new ArrayList<>();
-                } else {
-                    String[] parts = line.trim().split("\\s+");
-                    if (parts.length == 2) {
-                        int weight = Integer.parseInt(parts[0]);
-                        int count = Integer.parseInt(parts[1]);
-                        for (int i = 0; i < count; i++) {
-                            items.add(weight);
-                        }
-                    }
-                }
-            }
-            if (items != null) {
-                testCases.add(new Object[]{testName, items}); // Add the last test case
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return testCases;
-    }
 }
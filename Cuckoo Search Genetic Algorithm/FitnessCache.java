@@ -0,0 +1,98 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+// Bounded LRU cache of nest fitness values, keyed by a 64-bit hash of the nest.
+// Entries do not keep a copy of the nest, which would cost capacity x n ints. Instead every entry stores a second,
+// independent 64-bit hash and a hit needs both hashes to match, so a wrong fitness takes a 128-bit collision.
+public class FitnessCache {
+    private final LinkedHashMap<Long, Entry> entries;
+    private long lookups;
+    private long hits;
+
+    private static class Entry {
+        final long check;
+        final double fitness;
+
+        Entry(long check, double fitness) {
+            this.check = check;
+            this.fitness = fitness;
+        }
+    }
+
+    public FitnessCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        // Access order turns the map into an LRU list, the eldest entry is evicted once the cache is full
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Returns the cached fitness of the nest, evaluating and storing it on a miss
+    public double getFitness(int[] nest, ToDoubleFunction<int[]> evaluator) {
+        lookups++;
+        long key = hash(nest);
+        long check = checkHash(nest);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.check == check) {
+            hits++;
+            return entry.fitness;
+        }
+        double fitness = evaluator.applyAsDouble(nest);
+        entries.put(key, new Entry(check, fitness));
+        return fitness;
+    }
+
+    // Order-sensitive hash of the item sequence, finished with the MurmurHash3 mixer so that nests which differ in a
+    // single position end up far apart
+    public static long hash(int[] nest) {
+        long h = nest.length;
+        for (int item : nest) {
+            h = h * 0x9E3779B97F4A7C15L + item;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Second hash that confirms a hit. It uses a different multiplier, seed and finalizer (the SplitMix64 mixer),
+    // so nests that collide in hash() are not expected to collide here as well
+    public static long checkHash(int[] nest) {
+        long h = 0x632BE59BD9B4E019L ^ nest.length;
+        for (int item : nest) {
+            h = (h + item) * 0xD6E8FEB86659FD93L;
+        }
+        h ^= h >>> 30;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 27;
+        h *= 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return h;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    // Every hit is an evaluation that did not have to decode the nest
+    public long getHits() {
+        return hits;
+    }
+
+    public double getHitRate() {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public void resetStatistics() {
+        lookups = 0;
+        hits = 0;
+    }
+}
@@ -1,33 +1,35 @@
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Bin {
-    private static int idCounter = 0;  // Static counter to ensure each bin gets a unique ID
+    private static final AtomicInteger idCounter = new AtomicInteger();  // Static counter to ensure each bin gets a unique ID, safe to use from worker threads
     private int id;
     List<Item> items;
+    private int currentSize;  // Running total of the item sizes, kept in sync by addItem
 
     public Bin() {
         this.items = new ArrayList<>();
-        this.id = idCounter++;  // Assign an ID and increment the counter
+        this.id = idCounter.getAndIncrement();  // Assign an ID and increment the counter
     }
 
     public Bin(List<Item> items) {
         this.items = new ArrayList<>(items);
-        this.id = idCounter++;  // Assign an ID and increment the counter
+        this.currentSize = items.stream().mapToInt(Item::getSize).sum();
+        this.id = idCounter.getAndIncrement();  // Assign an ID and increment the counter
     }
 
     public void addItem(Item item) {
         this.items.add(item);
+        this.currentSize += item.getSize();
     }
 
     public boolean canAddItem(Item item, int binCapacity) {
-        int currentSize = items.stream().mapToInt(Item::getSize).sum();
-        return currentSize + item.getSize() <= binCapacity;
+        return getCurrentSize() + item.getSize() <= binCapacity;
     }
 
     public int getCurrentSize() {
-        return items.stream().mapToInt(Item::getSize).sum();
+        return currentSize;
     }
 
     // Getter method to retrieve a copy of the items list
@@ -35,12 +37,25 @@ public class Bin {
         return new ArrayList<>(items);  // Return a copy of the items to protect the internal list
     }
 
-    public String getConfiguration() {
-        // This sorts the item sizes and concatenates them into a unique string per bin
-        return items.stream()
-                .map(item -> String.valueOf(item.size))
-                .sorted()
-                .collect(Collectors.joining(","));
+    // Hash of one item size. Summing these over the items of a bin gives its configuration hash, which is equal for
+    // bins with the same multiset of sizes, see GeneticAlgorithm.Individual.binHash; a sum rather than a XOR so that two
+    // items of the same size do not cancel out.
+    static long sizeHash(int size) {
+        return mix(size * 0x9E3779B97F4A7C15L);
+    }
+
+    // Hash of a bin configuration as it enters the hash of a whole packing. The packing hash is the sum of these over
+    // its bins, which is independent of the bin order. The sizes are mixed again, since the plain sum of the bin hashes
+    // would be the same for every packing of the instance.
+    static long configurationKey(long configurationHash) {
+        return mix(configurationHash ^ 0xD6E8FEB86659FD93L);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 }
 
@@ -1,18 +1,31 @@
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
 
 public class GeneticAlgorithm {
-    private static int currentGeneration = 0;
     // Constants
     private static final int POPULATION_SIZE = 100;
     private static final int GENERATIONS = 1000;
-    private static final Random random = new Random();
-    private static final int BIN_CAPACITY = 10000;
+    private static final String BPP_FILE = "Genetic Algorithm/BPP.txt";
 
     private static final int OFFSPRING_SIZE = 250;
     // A larger population size allows for more exploration but also increases computational complexity. 500 individuals is a reasonable size for many problems
 
+    // Offspring of one MGG round are generated in batches on a fork-join pool when this is enabled.
+    // Every offspring draws from its own SplittableRandom stream and the batch is merged into the population in
+    // offspring order, so a given seed gives the same result at any thread count.
+    private static final boolean PARALLEL_MGG = true;
+    private static final int MGG_BATCH_SIZE = 50;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long SEED = 42;
+    // Initial population, mutation and sequential MGG of main, seeded like the parallel MGG streams
+    private static final Random random = new Random(SEED);
+    // Offspring that repeat a packing already in the population are not inserted, see Population
+    private static final boolean REJECT_DUPLICATES = true;
+
     private static final double MUTATION_RATE = 0.01;
     // the probability of random changes in individual genes.
     // Generally low, often between 0.001 and 0.01.
@@ -23,452 +36,877 @@ public class GeneticAlgorithm {
     // This method is responsible for creating the initial population of solutions for the genetic algorithm.
     // Creates an empty list to hold the population of individuals.
     // Loops over the number of individuals to be generated (specified by populationSize).
-    // Shuffles the items - It takes a list of original items, creates a copy, and then shuffles this copy randomly. This step is crucial as it introduces randomness in the initial solutions, promoting genetic diversity from the outset.
-    // Generates an individual - For each shuffled list of items, it calls the generateIndividualUsingFF method to create a new individual based on the First-Fit heuristic.
+    // Shuffles the items - It takes the item indices, shuffles them randomly and orders them by size. This step is crucial as it introduces randomness in the initial solutions, promoting genetic diversity from the outset.
+    // Generates an individual - For each shuffled order of items, it calls the applyFirstFit method to create a new individual based on the First-Fit heuristic.
     // Generate the initial population of solutions using both random shuffling and heuristic-based approaches
-    public static List<Individual> generateInitialPopulation(List<Item> originalItems, int binCapacity, int populationSize) {
+    // workspace is the scratch space of the calling run, runs on other threads have their own
+    public static List<Individual> generateInitialPopulation(int[] sizes, int binCapacity, int populationSize, RandomGenerator random,
+                                                             Workspace workspace) {
         List<Individual> population = new ArrayList<>();
+        int[] shuffledItems = new int[sizes.length];
+        int[] shuffledSizes = new int[sizes.length];
+        int[] order = new int[sizes.length];
 
         // Random shuffling and First-Fit
         for (int i = 0; i < populationSize; i++) {
-            List<Item> shuffledItems = new ArrayList<>(originalItems);
-            Collections.shuffle(shuffledItems, random);
+            for (int item = 0; item < sizes.length; item++) {
+                shuffledItems[item] = item;
+            }
+            shuffle(shuffledItems, shuffledItems.length, random);
 
-            // Sort items in non-increasing size order before FFD
-            Collections.sort(shuffledItems, Comparator.comparingInt(Item::getSize).reversed());
-            population.add(new Individual(applyFirstFit(shuffledItems, binCapacity)));
+            // Sort items in non-increasing size order before FFD, the sort is stable so ties keep their shuffled order
+            for (int k = 0; k < sizes.length; k++) {
+                shuffledSizes[k] = sizes[shuffledItems[k]];
+            }
+            int[] sortedPositions = PackingEngine.sortBySizeDescending(shuffledSizes, binCapacity);
+            for (int k = 0; k < sizes.length; k++) {
+                order[k] = shuffledItems[sortedPositions[k]];
+            }
+            population.add(applyFirstFit(order, sizes, binCapacity, workspace));
         }
 
         return population;
     }
 
     // This method implements the First-Fit algorithm, which is used to place items into bins. Here's the step-by-step process:
-    // Initializes an empty list of bins.
-    // Iterates over each item in the shuffled list:
+    // Iterates over each item in the given order:
     //   It checks if there is an existing bin that can accommodate the item without exceeding the bin's capacity.
     //   If such a bin exists, the item is added to the first suitable bin found.
     //   If no suitable bin is found, a new bin is created, and the item is added to this new bin.
-    // Returns an individual - An individual, represented by the list of bins (each containing a set of items), is returned. This individual is a solution to the bin packing problem under the First-Fit strategy.
-    private static List<Bin> applyFirstFit(List<Item> items, int binCapacity) {
-        List<Bin> bins = new ArrayList<>();
-        for (Item item : items) {
-            boolean placed = false;
-            for (Bin bin : bins) {
-                if (bin.canAddItem(item, binCapacity)) {
-                    bin.addItem(item);
-                    placed = true;
-                    break;
-                }
-            }
-            if (!placed) {
-                Bin newBin = new Bin();
-                newBin.addItem(item);
-                bins.add(newBin);
-            }
+    // Returns an individual - An individual, represented by the bin of every item, is returned. This individual is a solution to the bin packing problem under the First-Fit strategy.
+    static Individual applyFirstFit(int[] order, int[] sizes, int binCapacity, Workspace workspace) {
+        PackingEngine packer = workspace.packer;
+        Individual individual = new Individual(sizes.length);
+        packer.reset(binCapacity, sizes.length);
+        for (int item : order) {
+            int bin = packer.firstFit(sizes[item]);
+            individual.binOf[item] = bin;
+            individual.binHash[bin] += Bin.sizeHash(sizes[item]);
         }
-        return bins;
+        individual.binCount = packer.copyLoads(individual.loads);
+        individual.rebuildMembership();
+        individual.rehash();
+        return individual;
     }
 
-    private static Individual crossover(Individual parent1, Individual parent2, int binCapacity) {
+    static Individual crossover(Individual parent1, Individual parent2, int[] sizes, int binCapacity,
+                                RandomGenerator random, Workspace workspace) {
+        workspace.ensureCapacity(sizes.length);
         // New offspring individual with no bins initially
-        Individual offspring = new Individual(new ArrayList<>());
+        Individual offspring = new Individual(sizes.length);
+
+        // Item membership is tracked in bitsets over the item indices, bit i of word i >> 6 for item i
+        int words = (sizes.length + 63) >>> 6;
+        long[] itemsInS1 = workspace.itemsInS1;
+        long[] placed = workspace.placedItems;
+        Arrays.fill(itemsInS1, 0, words, 0);
+        Arrays.fill(placed, 0, words, 0);
 
         // S1: Randomly select a subset of bins from parent1
-        Set<Bin> S1 = selectRandomBins(parent1);
-        Set<Item> itemsInS1 = new HashSet<>();
-        for (Bin bin : S1) {
-            offspring.getBins().add(new Bin(new ArrayList<>(bin.getItems())));
-            itemsInS1.addAll(bin.getItems());
+        int[] S1 = selectRandomBins(parent1, random, workspace);
+        int numBinsS1 = parent1.binCount / 2; // Select about half of the bins
+        for (int k = 0; k < numBinsS1; k++) {
+            int bin = offspring.binCount++;
+            for (int p = parent1.binStart[S1[k]]; p < parent1.binStart[S1[k] + 1]; p++) {
+                int item = parent1.members[p];
+                offspring.binOf[item] = bin;
+                itemsInS1[item >>> 6] |= 1L << item;
+            }
+            offspring.loads[bin] = parent1.loads[S1[k]];
+            offspring.binHash[bin] = parent1.binHash[S1[k]];
         }
 
         // S2: Select bins from parent2 that do not contain any items from S1
-        Set<Bin> S2 = new HashSet<>();
-        for (Bin bin : parent2.getBins()) {
-            if (Collections.disjoint(bin.getItems(), itemsInS1)) {
-                offspring.getBins().add(new Bin(new ArrayList<>(bin.getItems())));
-                S2.add(bin);
+        for (int b = 0; b < parent2.binCount; b++) {
+            if (isDisjoint(parent2, b, itemsInS1)) {
+                int bin = offspring.binCount++;
+                for (int p = parent2.binStart[b]; p < parent2.binStart[b + 1]; p++) {
+                    int item = parent2.members[p];
+                    offspring.binOf[item] = bin;
+                    placed[item >>> 6] |= 1L << item;
+                }
+                offspring.loads[bin] = parent2.loads[b];
+                offspring.binHash[bin] = parent2.binHash[b];
             }
         }
 
-        // T: Create a temporary set containing items not in S1 or S2
-        Set<Item> itemsInS2 = S2.stream()
-                .flatMap(bin -> bin.getItems().stream())
-                .collect(Collectors.toSet());
-        Set<Item> itemsNotInOffspring = getAllItemsFromBothParents(parent1, parent2);
-        itemsNotInOffspring.removeAll(itemsInS1);
-        itemsNotInOffspring.removeAll(itemsInS2);
-
+        // T: the items not in S1 or S2 are the ones the offspring has not placed yet
+        for (int w = 0; w < words; w++) {
+            placed[w] |= itemsInS1[w];
+        }
         // S3: Try to pack remaining items into the current bins optimally
-        reintegrateItemsDynamically(offspring.getBins(), itemsNotInOffspring, binCapacity);
+        reintegrateItemsDynamically(offspring, sizes, binCapacity, placed, workspace);
 
         return offspring;
     }
 
-    private static Set<Bin> selectRandomBins(Individual parent) {
-        List<Bin> bins = new ArrayList<>(parent.getBins());
-        Collections.shuffle(bins, random);
-        int numBins = bins.size() / 2; // Select about half of the bins
-        return new HashSet<>(bins.subList(0, numBins));
+    // Returns the bins of the parent in random order, the caller takes as many as it needs from the front
+    private static int[] selectRandomBins(Individual parent, RandomGenerator random, Workspace workspace) {
+        int[] bins = workspace.binOrder;
+        for (int b = 0; b < parent.binCount; b++) {
+            bins[b] = b;
+        }
+        shuffle(bins, parent.binCount, parent.binCount / 2, random);
+        return bins;
     }
 
-    private static Set<Item> getAllItemsFromBothParents(Individual parent1, Individual parent2) {
-        Set<Item> items = new HashSet<>();
-        parent1.getBins().forEach(bin -> items.addAll(bin.getItems()));
-        parent2.getBins().forEach(bin -> items.addAll(bin.getItems()));
-        return items;
+    // Whether none of the items of the bin is in the bitset. A bin holds a handful of items, so its bits are tested one
+    // by one rather than ANDed word-wise against a bitset of the bin, which would be n / 64 words per bin.
+    private static boolean isDisjoint(Individual individual, int bin, long[] items) {
+        for (int p = individual.binStart[bin]; p < individual.binStart[bin + 1]; p++) {
+            int item = individual.members[p];
+            if ((items[item >>> 6] & (1L << item)) != 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private static void reintegrateItemsDynamically(List<Bin> bins, Set<Item> remainingItems, int binCapacity) {
+    // Packs the items whose bit is clear in placed, in index order, found by a word-wise scan of the complement
+    private static void reintegrateItemsDynamically(Individual offspring, int[] sizes, int binCapacity, long[] placed,
+                                                    Workspace workspace) {
         // You may use any heuristic here, e.g., Best Fit, First Fit, etc.
-        for (Item item : remainingItems) {
-            if (!placeItemInExistingBins(bins, item, binCapacity)) {
-                Bin newBin = new Bin();
-                newBin.addItem(item);
-                bins.add(newBin);
+        PackingEngine packer = workspace.packer;
+        seedPacker(packer, offspring, binCapacity);
+        int words = (sizes.length + 63) >>> 6;
+        for (int w = 0; w < words; w++) {
+            long missing = ~placed[w];
+            if (w == words - 1 && (sizes.length & 63) != 0) {
+                missing &= (1L << sizes.length) - 1; // Bits past the last item
+            }
+            while (missing != 0) {
+                int item = (w << 6) + Long.numberOfTrailingZeros(missing);
+                missing &= missing - 1;
+                int bin = packer.firstFit(sizes[item]);
+                offspring.binOf[item] = bin;
+                offspring.binHash[bin] += Bin.sizeHash(sizes[item]);
             }
         }
+        offspring.binCount = packer.copyLoads(offspring.loads);
+        offspring.rebuildMembership();
+        offspring.rehash();
     }
 
-    private static boolean placeItemInExistingBins(List<Bin> bins, Item item, int binCapacity) {
-        for (Bin bin : bins) {
-            if (bin.canAddItem(item, binCapacity)) {
-                bin.addItem(item);
-                return true;
-            }
+    // Loads the current bins into the shared packing engine so that items can be added on top of them
+    private static void seedPacker(PackingEngine packer, Individual individual, int binCapacity) {
+        packer.reset(binCapacity, individual.binOf.length);
+        for (int b = 0; b < individual.binCount; b++) {
+            packer.add(b, individual.loads[b]);
         }
-        return false;
     }
 
 
     // Method to optimize filling of bins using a detailed replacement strategy
-    private static void optimizeBinFilling(List<Bin> bins, List<Item> allItems) {
-        for (Bin bin : bins) {
-            int currentBinCapacity = bin.getCurrentSize();
-            int slack = BIN_CAPACITY - currentBinCapacity;
-
-            List<Item> itemsInBin = new ArrayList<>(bin.getItems());
-            List<Item> itemsToRemove = new ArrayList<>();
-            List<Item> itemsToAdd = new ArrayList<>();
+    // An item is replaced by a larger item from another bin that still fits, and the two items swap bins. The other
+    // bin always gets lighter, so the swap is feasible and every item stays in exactly one bin.
+    // Candidates come from the size index of the workspace, so a probe costs O(log S) for S distinct sizes plus the
+    // items of the bin it has to skip, instead of a scan of all items.
+    static void optimizeBinFilling(Individual individual, int[] sizes, int binCapacity, Workspace workspace) {
+        workspace.ensureCapacity(sizes.length);
+        workspace.indexSizes(sizes);
+        int[] position = workspace.position;
+        for (int p = 0; p < individual.members.length; p++) {
+            position[individual.members[p]] = p;
+        }
 
+        for (int bin = 0; bin < individual.binCount; bin++) {
             // Iterate over possible replacements and attempt to optimize bin fill
-            for (Item original : itemsInBin) {
-                int remainingSlack = BIN_CAPACITY - (currentBinCapacity - original.getSize());
-                Item bestReplacement = findBestReplacement(original, remainingSlack, allItems);
-                if (bestReplacement != null && !itemsInBin.contains(bestReplacement)) {
-                    itemsToRemove.add(original);
-                    itemsToAdd.add(bestReplacement);
-                    currentBinCapacity = currentBinCapacity - original.getSize() + bestReplacement.getSize();
+            for (int p = individual.binStart[bin]; p < individual.binStart[bin + 1]; p++) {
+                int original = individual.members[p];
+                int remainingSlack = binCapacity - (individual.loads[bin] - sizes[original]);
+                int bestReplacement = findBestReplacement(individual, original, remainingSlack, sizes, workspace);
+                if (bestReplacement == -1) {
+                    continue;
                 }
-            }
-
-            // Apply the replacements
-            bin.getItems().removeAll(itemsToRemove);
-            bin.getItems().addAll(itemsToAdd);
 
-            // Check and handle any discrepancies
-            if (!itemsCorrectlyReplaced(itemsToRemove, itemsToAdd)) {
-                throw new IllegalStateException("Error in bin optimization: Item replacement mismatch.");
+                // Apply the replacement
+                int otherBin = individual.binOf[bestReplacement];
+                int otherPosition = position[bestReplacement];
+                int delta = sizes[bestReplacement] - sizes[original];
+                individual.members[p] = bestReplacement;
+                individual.members[otherPosition] = original;
+                position[bestReplacement] = p;
+                position[original] = otherPosition;
+                individual.binOf[bestReplacement] = bin;
+                individual.binOf[original] = otherBin;
+                individual.loads[bin] += delta;
+                individual.loads[otherBin] -= delta;
+                long hashDelta = Bin.sizeHash(sizes[bestReplacement]) - Bin.sizeHash(sizes[original]);
+                individual.hash -= Bin.configurationKey(individual.binHash[bin]) + Bin.configurationKey(individual.binHash[otherBin]);
+                individual.binHash[bin] += hashDelta;
+                individual.binHash[otherBin] -= hashDelta;
+                individual.hash += Bin.configurationKey(individual.binHash[bin]) + Bin.configurationKey(individual.binHash[otherBin]);
+
+                // Check and handle any discrepancies
+                if (!itemsCorrectlyReplaced(individual, bin, otherBin, binCapacity)) {
+                    throw new IllegalStateException("Error in bin optimization: Item replacement mismatch.");
+                }
             }
         }
     }
 
-    // Function to find the best replacement for an item considering all available items
-    private static Item findBestReplacement(Item original, int remainingSlack, List<Item> candidateItems) {
-        Item bestFit = null;
-        int minSlack = Integer.MAX_VALUE;
-
-        for (Item candidate : candidateItems) {
-            if (candidate.getSize() > original.getSize() && candidate.getSize() <= remainingSlack) {
-                int slackDifference = remainingSlack - candidate.getSize();
-                if (slackDifference < minSlack) {
-                    minSlack = slackDifference;
-                    bestFit = candidate;
+    // Function to find the best replacement for an item considering all items outside its bin: the largest item that
+    // is larger than the original and fits the slack, the lowest index among items of that size. The size classes are
+    // walked down from the floor of the slack, and within a class only items of the original's own bin are skipped.
+    private static int findBestReplacement(Individual individual, int original, int remainingSlack, int[] sizes,
+                                           Workspace workspace) {
+        int bin = individual.binOf[original];
+        int[] classSize = workspace.classSize;
+        int[] classStart = workspace.classStart;
+        int[] classItems = workspace.classItems;
+        for (int c = workspace.floorClass(remainingSlack); c >= 0 && classSize[c] > sizes[original]; c--) {
+            for (int p = classStart[c]; p < classStart[c + 1]; p++) {
+                int candidate = classItems[p];
+                if (individual.binOf[candidate] != bin) {
+                    return candidate;
                 }
             }
         }
-
-        return bestFit;
+        return -1;
     }
 
     // Function to ensure that the replacement process is correct
-    private static boolean itemsCorrectlyReplaced(List<Item> removed, List<Item> added) {
-        if (removed.size() != added.size()) {
-            return false;
-        }
-
-        int removedWeight = removed.stream().mapToInt(Item::getSize).sum();
-        int addedWeight = added.stream().mapToInt(Item::getSize).sum();
-        return removedWeight <= addedWeight;
+    private static boolean itemsCorrectlyReplaced(Individual individual, int bin, int otherBin, int binCapacity) {
+        return individual.loads[bin] <= binCapacity && individual.loads[otherBin] >= 0;
     }
 
-    private static Set<Item> extractItems(List<Bin> binsForMutation) {
-        Set<Item> extractedItems = new HashSet<>();
-        for (Bin bin : binsForMutation) {
-            extractedItems.addAll(bin.items);
-            bin.items.clear();  // Clear the items from the bin after extraction
-        }
-        return extractedItems;
-    }
-
-    private static void replaceWorstWithOffspring(List<Individual> population, Individual offspring) {
-        // Sort population based on fitness and replace the least fit with offspring
-        population.sort(Comparator.comparingInt(Individual::getFitness));  // Assume fitness is already calculated to reflect quality
-        if (offspring.getFitness() > population.get(0).getFitness()) {  // Assuming higher fitness is better
-            population.set(0, offspring);  // Replace the worst individual
+    // Moves the items of the given bins to the front of the buffer and returns how many there are
+    private static int extractItems(Individual individual, int[] binsForMutation, int numBins, int[] extractedItems) {
+        int count = 0;
+        for (int k = 0; k < numBins; k++) {
+            int bin = binsForMutation[k];
+            for (int p = individual.binStart[bin]; p < individual.binStart[bin + 1]; p++) {
+                extractedItems[count++] = individual.members[p];
+            }
         }
+        return count;
     }
 
-    private static void mutate(Individual individual, int binCapacity) {
+    static void mutate(Individual individual, int[] sizes, int binCapacity, RandomGenerator random, Workspace workspace) {
+        workspace.ensureCapacity(sizes.length);
         // Select a subset of bins randomly for mutation
-        List<Bin> binsForMutation = selectRandomBinsForMutation(individual, random.nextInt(2) + 2); // Randomly 2 or 3 bins
-
-        // Extract all items from these bins and clear the bins
-        Set<Item> extractedItems = extractItems(binsForMutation);
-        individual.bins.removeAll(binsForMutation); // Remove the selected bins from the individual
+        int numBins = Math.min(random.nextInt(2) + 2, individual.binCount); // Randomly 2 or 3 bins
+        int[] binsForMutation = selectRandomBinsForMutation(individual, numBins, random, workspace);
+
+        // Extract all items from these bins
+        int[] extractedItems = workspace.extractedItems;
+        int numExtracted = extractItems(individual, binsForMutation, numBins, extractedItems);
+
+        // Remove the selected bins from the individual, the remaining bins keep their order
+        boolean[] removed = workspace.removedBins;
+        Arrays.fill(removed, 0, individual.binCount, false);
+        for (int k = 0; k < numBins; k++) {
+            removed[binsForMutation[k]] = true;
+        }
+        int[] newIndex = workspace.newBinIndex;
+        int keptBins = 0;
+        for (int b = 0; b < individual.binCount; b++) {
+            if (!removed[b]) {
+                individual.loads[keptBins] = individual.loads[b];
+                individual.binHash[keptBins] = individual.binHash[b];
+                newIndex[b] = keptBins++;
+            }
+        }
+        Arrays.fill(individual.binHash, keptBins, individual.binCount, 0);
+        for (int item = 0; item < sizes.length; item++) {
+            int bin = individual.binOf[item];
+            individual.binOf[item] = removed[bin] ? -1 : newIndex[bin];
+        }
+        individual.binCount = keptBins;
 
         // Reintegrate extracted items using a heuristic
-        reintegrateItemsUsingHeuristic(individual, extractedItems, binCapacity);
+        reintegrateItemsUsingHeuristic(individual, extractedItems, numExtracted, sizes, binCapacity, workspace);
     }
 
-    private static void reintegrateItemsUsingHeuristic(Individual individual, Set<Item> items, int binCapacity) {
+    private static void reintegrateItemsUsingHeuristic(Individual individual, int[] items, int numItems, int[] sizes, int binCapacity,
+                                                       Workspace workspace) {
+        PackingEngine packer = workspace.packer;
         // Using Modified Best-Fit Slack (MBS) heuristic
-        for (Item item : items) {
-            Bin bestFitBin = null;
-            int minSlack = Integer.MAX_VALUE;
-
-            // Find the bin with the minimum slack that can still accommodate the item
-            for (Bin bin : individual.bins) {
-                int currentSlack = binCapacity - bin.getCurrentSize();
-                if (currentSlack >= item.getSize() && currentSlack - item.getSize() < minSlack) {
-                    bestFitBin = bin;
-                    minSlack = currentSlack - item.getSize();
-                }
-            }
-
-            // Place the item in the best-fit bin according to the slack or create a new bin if no suitable bin is found
-            if (bestFitBin != null) {
-                bestFitBin.addItem(item);
-            } else {
-                Bin newBin = new Bin();
-                newBin.addItem(item);
-                individual.bins.add(newBin);
-            }
+        // The bin with the minimum slack that can still accommodate the item comes from the packing engine,
+        // which opens a new bin if no suitable bin is found
+        seedPacker(packer, individual, binCapacity);
+        for (int k = 0; k < numItems; k++) {
+            int bin = packer.bestFit(sizes[items[k]]);
+            individual.binOf[items[k]] = bin;
+            individual.binHash[bin] += Bin.sizeHash(sizes[items[k]]);
         }
+        individual.binCount = packer.copyLoads(individual.loads);
+        individual.rebuildMembership();
+        individual.rehash();
     }
 
-    private static List<Bin> selectRandomBinsForMutation(Individual individual, int numBins) {
-        List<Bin> bins = new ArrayList<>(individual.bins);
-        Collections.shuffle(bins);
-        return bins.subList(0, Math.min(numBins, bins.size()));
+    // Returns the bins of the individual with numBins randomly chosen ones at the front
+    private static int[] selectRandomBinsForMutation(Individual individual, int numBins, RandomGenerator random, Workspace workspace) {
+        int[] bins = workspace.binOrder;
+        for (int b = 0; b < individual.binCount; b++) {
+            bins[b] = b;
+        }
+        shuffle(bins, individual.binCount, numBins, random);
+        return bins;
     }
 
-    private static Map<String, List<Item>> loadItems(String fileName) throws FileNotFoundException {
-        Map<String, List<Item>> testCases = new HashMap<>();
-        File file = new File(fileName);
-
-        try (Scanner scanner = new Scanner(file)) {
-            while (scanner.hasNextLine()) {
-                String testName = scanner.nextLine().trim(); // Test case name
-                int numberOfItems = Integer.parseInt(scanner.nextLine().trim());
-                int binCapacity = Integer.parseInt(scanner.nextLine().trim()); // Bin capacity
-
-                List<Item> items = new ArrayList<>();
-                for (int i = 0; i < numberOfItems; i++) {
-                    String[] line = scanner.nextLine().trim().split("\\s+");
-                    int weight = Integer.parseInt(line[0]);
-                    int quantity = Integer.parseInt(line[1]);
+    private static void shuffle(int[] values, int count, RandomGenerator random) {
+        shuffle(values, values.length, count, random);
+    }
 
-                    for (int j = 0; j < quantity; j++) {
-                        items.add(new Item(weight));
-                    }
-                }
-                testCases.put(testName, items);
-            }
+    // Partial Fisher-Yates shuffle of values[0..length), only the first count positions receive their final random value
+    private static void shuffle(int[] values, int length, int count, RandomGenerator random) {
+        for (int i = 0; i < count && i < length - 1; i++) {
+            int j = i + random.nextInt(length - i);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
         }
-        return testCases;
     }
 
-
-    private static void selectionUsingMGG(List<Individual> population, int offspringSize, int binCapacity) {
-        while (offspringSize > 0) {
+    // Returns the number of offspring generated, fewer than offspringSize if control stopped the run
+    private static int selectionUsingMGG(Population population, int offspringSize, int[] sizes, int binCapacity,
+                                         RandomGenerator random, Workspace workspace, SearchControl control) {
+        Telemetry telemetry = control.getTelemetry();
+        int generated = 0;
+        while (generated < offspringSize && !control.shouldStop()) {
             // Select two parents randomly
             Individual parent1 = population.get(random.nextInt(population.size()));
             Individual parent2 = population.get(random.nextInt(population.size()));
 
             // Generate offspring
-            Individual offspring = crossover(parent1, parent2, binCapacity);
-            mutate(offspring, binCapacity);
+            long start = telemetry.start(Telemetry.Operator.CROSSOVER);
+            Individual offspring = crossover(parent1, parent2, sizes, binCapacity, random, workspace);
+            telemetry.stop(Telemetry.Operator.CROSSOVER, start);
+            start = telemetry.start(Telemetry.Operator.MUTATE);
+            mutate(offspring, sizes, binCapacity, random, workspace);
+            telemetry.stop(Telemetry.Operator.MUTATE, start);
 
             // Replace worst individuals with new offspring if better
-            replaceWorstWithOffspring(population, offspring);
-            offspringSize--;
+            population.offer(offspring);
+            generated++;
         }
+        return generated;
     }
 
-    private static Individual findBestSolution(List<Individual> population) {
-        return Collections.max(population, Comparator.comparing(Individual::getFitness));
+    // Parallel variant of selectionUsingMGG. Offspring are generated in batches from the population as it was at the
+    // start of the batch, each one with its own SplittableRandom split off the master stream in offspring order.
+    // The batch is then merged into the population sequentially in that same order, so neither the number of
+    // threads nor the scheduling of the tasks changes the result for a given seed.
+    private static int selectionUsingParallelMGG(Population population, int offspringSize, int[] sizes, int binCapacity,
+                                                 ForkJoinPool pool, SplittableRandom random, int batchSize,
+                                                 SearchControl control) {
+        int generated = 0;
+        while (generated < offspringSize && !control.shouldStop()) {
+            int batch = Math.min(batchSize, offspringSize - generated);
+            SplittableRandom[] streams = new SplittableRandom[batch];
+            for (int k = 0; k < batch; k++) {
+                streams[k] = random.split();
+            }
+
+            // Generate offspring
+            Individual[] offspring = new Individual[batch];
+            pool.invoke(new OffspringTask(population, sizes, binCapacity, streams, offspring, 0, batch, control.getTelemetry()));
+
+            // Replace worst individuals with new offspring if better
+            for (Individual child : offspring) {
+                population.offer(child);
+            }
+            generated += batch;
+        }
+        return generated;
     }
 
-    static class Individual {
-        List<Bin> bins;
+    // Generates offspring[from..to) by splitting the range until it is small enough for one worker
+    private static class OffspringTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int SEQUENTIAL_THRESHOLD = 4;
+        private static final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+        private final Population population;
+        private final int[] sizes;
+        private final int binCapacity;
+        private final SplittableRandom[] streams;
+        private final Individual[] offspring;
+        private final int from;
+        private final int to;
+        private final Telemetry telemetry;
+
+        OffspringTask(Population population, int[] sizes, int binCapacity, SplittableRandom[] streams,
+                      Individual[] offspring, int from, int to, Telemetry telemetry) {
+            this.population = population;
+            this.sizes = sizes;
+            this.binCapacity = binCapacity;
+            this.streams = streams;
+            this.offspring = offspring;
+            this.from = from;
+            this.to = to;
+            this.telemetry = telemetry;
+        }
 
-        public Individual(List<Bin> bins) {
-            this.bins = bins;
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Workspace workspace = workspaces.get();
+                for (int k = from; k < to; k++) {
+                    SplittableRandom random = streams[k];
+                    // Select two parents randomly
+                    Individual parent1 = population.get(random.nextInt(population.size()));
+                    Individual parent2 = population.get(random.nextInt(population.size()));
+                    long start = telemetry.start(Telemetry.Operator.CROSSOVER);
+                    Individual child = crossover(parent1, parent2, sizes, binCapacity, random, workspace);
+                    telemetry.stop(Telemetry.Operator.CROSSOVER, start);
+                    start = telemetry.start(Telemetry.Operator.MUTATE);
+                    mutate(child, sizes, binCapacity, random, workspace);
+                    telemetry.stop(Telemetry.Operator.MUTATE, start);
+                    offspring[k] = child;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new OffspringTask(population, sizes, binCapacity, streams, offspring, from, middle, telemetry),
+                    new OffspringTask(population, sizes, binCapacity, streams, offspring, middle, to, telemetry));
+        }
+    }
+
+    // Runs the same MGG rounds from the same population and seed on 1, 2, 4, ... threads and prints the offspring
+    // throughput of each. The best fitness is printed as well, it has to be identical on every line.
+    private static void printScalingReport(String testCaseName, int[] sizes, int binCapacity, int rounds) {
+        List<Individual> initialPopulation = generateInitialPopulation(sizes, binCapacity, POPULATION_SIZE, new SplittableRandom(SEED),
+                new Workspace());
+        printColored("MGG scaling for " + testCaseName + " (" + sizes.length + " items, " + rounds + " rounds of "
+                + OFFSPRING_SIZE + " offspring)", ANSI_YELLOW);
+        for (int threads = 1; threads <= THREADS; threads = threads < THREADS ? Math.min(threads * 2, THREADS) : threads + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                // Warm up on a throwaway copy first so the JIT does not count against the smaller thread counts
+                selectionUsingParallelMGG(new Population(initialPopulation, REJECT_DUPLICATES), OFFSPRING_SIZE, sizes, binCapacity,
+                        pool, new SplittableRandom(SEED), MGG_BATCH_SIZE, new SearchControl());
+                Population population = new Population(initialPopulation, REJECT_DUPLICATES);
+                SplittableRandom random = new SplittableRandom(SEED);
+                long start = System.nanoTime();
+                for (int round = 0; round < rounds; round++) {
+                    selectionUsingParallelMGG(population, OFFSPRING_SIZE, sizes, binCapacity, pool, random, MGG_BATCH_SIZE,
+                            new SearchControl());
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("Threads: %2d, Offspring/sec: %10.1f, Best fitness: %d%n",
+                        threads, rounds * OFFSPRING_SIZE / seconds, population.best().getFitness());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Compact encoding of a solution. Items are identified by their index in the instance's sizes array.
+    // Every array is sized for the number of items, so an individual can be reshaped in place without allocating.
+    // The operators keep binHash up to date as they move items and hash as they change bins, so comparing two packings
+    // as multisets of bin configurations costs one long comparison (up to 64-bit hash collisions).
+    static class Individual {
+        int[] binOf;    // Bin of every item
+        int[] loads;    // Load of every bin, only the first binCount entries are used
+        int binCount;
+        int[] binStart; // CSR bin membership: the items of bin b are members[binStart[b]] .. members[binStart[b + 1] - 1]
+        int[] members;
+        long[] binHash; // Bin.sizeHash sum of every bin, zero from binCount on
+        long hash;      // Bin.configurationKey sum over the bins, independent of the bin order
+
+        public Individual(int numItems) {
+            this.binOf = new int[numItems];
+            this.loads = new int[numItems];
+            this.binStart = new int[numItems + 1];
+            this.members = new int[numItems];
+            this.binHash = new long[numItems];
         }
 
         public int getFitness() {
             // Fitness is the negative of the number of bins (we want to minimize the number of bins)
-            return -bins.size();
+            return -binCount;
             //return calculateFitness();
         }
 
         // For debugging purposes
-        public double calculateFitness() {
-            double loadSumSquared = bins.stream()
-                    .mapToDouble(bin -> Math.pow((double)bin.getCurrentSize() / BIN_CAPACITY * 100, 2))
-                    .sum();
+        public double calculateFitness(int binCapacity) {
+            double loadSumSquared = 0;
+            for (int b = 0; b < binCount; b++) {
+                loadSumSquared += Math.pow((double) loads[b] / binCapacity * 100, 2);
+            }
             double loadSumNormalized = loadSumSquared / 10000;
-            return loadSumNormalized / bins.size();
+            return loadSumNormalized / binCount;
         }
 
-        public List<Bin> getBins() {
+        void copyFrom(Individual other) {
+            System.arraycopy(other.binOf, 0, binOf, 0, binOf.length);
+            System.arraycopy(other.loads, 0, loads, 0, loads.length);
+            System.arraycopy(other.binStart, 0, binStart, 0, binStart.length);
+            System.arraycopy(other.members, 0, members, 0, members.length);
+            System.arraycopy(other.binHash, 0, binHash, 0, binHash.length);
+            binCount = other.binCount;
+            hash = other.hash;
+        }
+
+        // Recomputes hash from binHash after an operator repacked several bins, O(bins)
+        void rehash() {
+            long sum = 0;
+            for (int b = 0; b < binCount; b++) {
+                sum += Bin.configurationKey(binHash[b]);
+            }
+            hash = sum;
+        }
+
+        // hash computed from scratch from the bin membership, for validation
+        long computeHash(int[] sizes) {
+            long sum = 0;
+            for (int b = 0; b < binCount; b++) {
+                long configuration = 0;
+                for (int p = binStart[b]; p < binStart[b + 1]; p++) {
+                    configuration += Bin.sizeHash(sizes[members[p]]);
+                }
+                sum += Bin.configurationKey(configuration);
+            }
+            return sum;
+        }
+
+        // Rebuilds binStart and members from binOf with a counting sort, items of a bin stay in index order
+        void rebuildMembership() {
+            Arrays.fill(binStart, 0, binCount + 1, 0);
+            for (int bin : binOf) {
+                binStart[bin + 1]++;
+            }
+            for (int b = 0; b < binCount; b++) {
+                binStart[b + 1] += binStart[b];
+            }
+            for (int item = 0; item < binOf.length; item++) {
+                members[binStart[binOf[item]]++] = item;
+            }
+            for (int b = binCount; b > 0; b--) {
+                binStart[b] = binStart[b - 1];
+            }
+            binStart[0] = 0;
+        }
+
+        // Expands the compact encoding into Bin objects, used for reporting only
+        public List<Bin> toBins(List<Item> items) {
+            List<Bin> bins = new ArrayList<>(binCount);
+            for (int b = 0; b < binCount; b++) {
+                Bin bin = new Bin();
+                for (int p = binStart[b]; p < binStart[b + 1]; p++) {
+                    bin.addItem(items.get(members[p]));
+                }
+                bins.add(bin);
+            }
             return bins;
         }
     }
 
-    private static int totalItemWeight(List<Item> allItems) {
-        return allItems.stream().mapToInt(Item::getSize).sum();
-    }
+    // Per-thread scratch space for the variation operators, so that offspring generation only allocates the offspring
+    static class Workspace {
+        final PackingEngine packer = new PackingEngine();
+        long[] itemsInS1 = new long[0];  // Crossover bitsets, one bit per item
+        long[] placedItems = new long[0];
+        int[] binOrder = new int[0];
+        int[] extractedItems = new int[0];
+        boolean[] removedBins = new boolean[0];
+        int[] newBinIndex = new int[0];
+        int[] position = new int[0];
+        // Size index of the items of one instance for optimizeBinFilling, rebuilt when the sizes array changes:
+        // the distinct sizes ascending, and the items of class c sorted by index in classItems[classStart[c] ..
+        // classStart[c + 1] - 1]. The items never change size, so the index holds for every individual of the instance.
+        private int[] indexedSizes;
+        int[] classSize = new int[0];
+        int[] classStart = new int[0];
+        int[] classItems = new int[0];
+        int classCount;
+
+        void indexSizes(int[] sizes) {
+            if (indexedSizes == sizes) {
+                return;
+            }
+            long[] keys = new long[sizes.length];
+            for (int item = 0; item < sizes.length; item++) {
+                keys[item] = (long) sizes[item] << 32 | item;
+            }
+            Arrays.sort(keys);
+            classSize = new int[sizes.length];
+            classStart = new int[sizes.length + 1];
+            classItems = new int[sizes.length];
+            classCount = 0;
+            for (int p = 0; p < keys.length; p++) {
+                int size = (int) (keys[p] >>> 32);
+                if (classCount == 0 || classSize[classCount - 1] != size) {
+                    classSize[classCount] = size;
+                    classStart[classCount++] = p;
+                }
+                classItems[p] = (int) keys[p];
+            }
+            classStart[classCount] = sizes.length;
+            indexedSizes = sizes;
+        }
 
-    public static void main(String[] args) throws FileNotFoundException {
-        long startTime = System.currentTimeMillis();
-        System.out.println("Program started");
-        Map<String, List<Item>> testCases = loadItems("Genetic Algorithm/BPP.txt");
+        // Largest size class whose size is at most limit, -1 if there is none
+        int floorClass(int limit) {
+            int low = 0;
+            int high = classCount;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (classSize[middle] <= limit) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low - 1;
+        }
 
-        for (Map.Entry<String, List<Item>> entry : testCases.entrySet()) {
-            String testCaseName = entry.getKey();
-            List<Item> allItems = new ArrayList<>(entry.getValue()); // Define allItems
-            List<Item> items = entry.getValue();
+        void ensureCapacity(int numItems) {
+            if (binOrder.length < numItems) {
+                itemsInS1 = new long[(numItems + 63) >>> 6];
+                placedItems = new long[(numItems + 63) >>> 6];
+                binOrder = new int[numItems];
+                extractedItems = new int[numItems];
+                removedBins = new boolean[numItems];
+                newBinIndex = new int[numItems];
+                position = new int[numItems];
+            }
+        }
+    }
 
-            printColored("Solving test case: " + testCaseName, ANSI_YELLOW);
-            System.out.println("Items loaded: " + items.size());
+    // Runs the GA on one instance and returns the best individual. The MGG rounds run on the pool when one is given
+    // and sequentially with random otherwise. Everything the run touches is passed in, so runs on different threads
+    // do not share state. control is checked before every offspring (every batch in parallel MGG) and receives each
+    // improvement of the best individual. rejectDuplicates keeps offspring that repeat a packing of the population out
+    // of it, and then the run does not stop once every individual is distinct. verbose prints the stopping reasons and
+    // the weight validation of every stage.
+    static Individual evolve(int[] sizes, int binCapacity, int populationSize, int offspringSize, int generations,
+                             RandomGenerator random, Workspace workspace, ForkJoinPool pool, SplittableRandom mggRandom,
+                             boolean rejectDuplicates, SearchControl control, boolean verbose) {
+        Telemetry telemetry = control.getTelemetry();
+        List<Individual> initialPopulation = generateInitialPopulation(sizes, binCapacity, populationSize, random, workspace);
+        for (Individual individual : initialPopulation) {
+            long start = telemetry.start(Telemetry.Operator.REPAIR);
+            optimizeBinFilling(individual, sizes, binCapacity, workspace);
+            telemetry.stop(Telemetry.Operator.REPAIR, start);
+        }
+        Population population = new Population(initialPopulation, rejectDuplicates);
+        if (verbose) {
+            System.out.println("Initial population generated");
+            validateAndLogBinWeights(population, sizes, "Initial Population Generation");
+        }
+        int lowerBound = LowerBounds.of(sizes, binCapacity);
+        // Mutation changes individuals in place, so the best solution so far is kept as a copy
+        Individual incumbent = new Individual(sizes.length);
+        incumbent.copyFrom(population.best());
+        control.improved(() -> SolverResult.fromAssignment(sizes, incumbent.binOf, incumbent.binCount));
+
+        int mutations = 0; // Mutations since the last telemetry record
+        for (int i = 0; i < generations && incumbent.binCount > lowerBound && !control.shouldStop(); i++) {
+            // Apply MGG
+            int offspring;
+            if (pool != null) {
+                offspring = selectionUsingParallelMGG(population, offspringSize, sizes, binCapacity, pool, mggRandom, MGG_BATCH_SIZE, control);
+            } else {
+                offspring = selectionUsingMGG(population, offspringSize, sizes, binCapacity, random, workspace, control);
+            }
+            Individual best = population.best();
+            if (best.binCount < incumbent.binCount) {
+                incumbent.copyFrom(best);
+                control.improved(() -> SolverResult.fromAssignment(sizes, incumbent.binOf, incumbent.binCount));
+            }
 
-            List<Individual> population = generateInitialPopulation(items, BIN_CAPACITY, POPULATION_SIZE);
-            for (Individual individual : population) {
-                optimizeBinFilling(individual.getBins(), allItems);
+            // Track and log metrics after selection
+            double avgFill = averageFillPercentage(population, binCapacity);
+            int diversity = population.distinctCount();
+            int bestFitness = incumbent.getFitness();
+//             For tracking
+//            System.out.println("Generation " + i + ": Avg Fill = " + avgFill + "%, Diversity = " + diversity + ", Best Fitness = " + bestFitness);
+            if (telemetry.isEnabled()) {
+                double meanBins = averageBinCount(population);
+                // Every offspring is packed by crossover and repacked by mutation
+                telemetry.endGeneration(i, incumbent.binCount, meanBins, diversity, offspring, 2L * offspring + mutations);
+                mutations = 0;
             }
-            System.out.println("Initial population generated");
-            validateAndLogBinWeights(population, allItems, "Initial Population Generation");
-
-            for (int i = 0; i < GENERATIONS; i++) {
-                // Apply MGG
-                selectionUsingMGG(population, OFFSPRING_SIZE, BIN_CAPACITY);
-                currentGeneration = i;
-
-                // Track and log metrics after selection
-                double avgFill = averageFillPercentage(population, BIN_CAPACITY);
-                int diversity = calculateDiversity(population);
-                int bestFitness = findBestSolution(population).getFitness();
-//                 For tracking
-//                System.out.println("Generation " + currentGeneration + ": Avg Fill = " + avgFill + "%, Diversity = " + diversity + ", Best Fitness = " + bestFitness);
-
-                int totalItemWeight = totalItemWeight(allItems);
-                // Check if fitness equals the maximum possible number of bins
-                if (bestFitness == -((totalItemWeight / BIN_CAPACITY)+1)) {
-                    System.out.println("Stopping criteria met. Fitness equals the minimum possible number of bins.");
-                    break; // Exit the loop if the stopping criteria is met
+
+            // Stop as soon as the best solution uses as many bins as the lower bound, it is optimal then
+            if (-bestFitness <= lowerBound) {
+                if (verbose) {
+                    System.out.println("Stopping criteria met. The best solution reaches the lower bound of " + lowerBound + " bins.");
                 }
+                break;
+            }
 
-                if (diversity >= 100) {
-                    System.out.println("Diversity reached 100, Stopping code");
-                    break;
+            // A population without copies has stopped converging. Duplicate rejection keeps every offspring copy out,
+            // so there the population is all distinct by construction and the run goes on to its generation budget.
+            if (!rejectDuplicates && diversity >= population.size()) {
+                if (verbose) {
+                    System.out.println("Diversity reached " + diversity + ", Stopping code");
                 }
+                break;
+            }
 
-                // Apply mutation to a portion of the population
-                for (int j = 0; j < population.size(); j++) {
-                    if (random.nextDouble() < MUTATION_RATE) {
-                        mutate(population.get(j), BIN_CAPACITY);
-                        validateAndLogBinWeights(population, allItems, "Crossover in Generation " + i);  // Validation after crossover
+            // Apply mutation to a portion of the population
+            for (int j = 0; j < population.size(); j++) {
+                if (random.nextDouble() < MUTATION_RATE) {
+                    long start = telemetry.start(Telemetry.Operator.MUTATE);
+                    mutate(population.get(j), sizes, binCapacity, random, workspace);
+                    telemetry.stop(Telemetry.Operator.MUTATE, start);
+                    population.update(j);
+                    mutations++;
+                    if (verbose) {
+                        validateAndLogBinWeights(population, sizes, "Crossover in Generation " + i);  // Validation after crossover
                     }
                 }
+            }
 
-                // Generation-wise logging (keeping your existing logging)
-                if (i % 100 == 0) {
-                    Individual bestIndividual = findBestSolution(population);
-//                    System.out.println("Generation " + i + ", Best Fitness: " + bestIndividual.getFitness());
-                    validateAndLogBinWeights(population, allItems, "Mutation in Generation " + i);  // Validation after mutation
-                }
+            // Generation-wise logging (keeping your existing logging)
+            if (i % 100 == 0 && verbose) {
+                Individual bestIndividual = population.best();
+//                System.out.println("Generation " + i + ", Best Fitness: " + bestIndividual.getFitness());
+                validateAndLogBinWeights(population, sizes, "Mutation in Generation " + i);  // Validation after mutation
+            }
+        }
+        return incumbent;
+    }
+
+    // Entry point for the batch runner. Config keys: populationSize, offspringSize, rejectDuplicates. The budget is the number of
+    // generations. MGG runs sequentially, the runner parallelises across jobs.
+    public static Solver solver() {
+        return new Solver() {
+            @Override
+            public String getName() {
+                return "GA";
             }
 
-            Individual bestSolution = findBestSolution(population);
-            printColored("Best solution for " + testCaseName + " uses " + bestSolution.bins.size() + " bins.", ANSI_GREEN);
+            @Override
+            public SolverResult solve(BppInstance instance, Map<String, String> config, long seed, int budget,
+                                      SearchControl control) {
+                int[] sizes = instance.expand();
+                int populationSize = Solver.intParameter(config, "populationSize", POPULATION_SIZE);
+                int offspringSize = Solver.intParameter(config, "offspringSize", OFFSPRING_SIZE);
+                boolean rejectDuplicates = Solver.booleanParameter(config, "rejectDuplicates", REJECT_DUPLICATES);
+                Individual best = evolve(sizes, instance.getBinCapacity(), populationSize, offspringSize,
+                        budget > 0 ? budget : GENERATIONS, new SplittableRandom(seed), new Workspace(), null, null,
+                        rejectDuplicates, control, false);
+                return SolverResult.fromAssignment(sizes, best.binOf, best.binCount);
+            }
 
-            // Print the details of each bin in the best solution
-            System.out.println("\nBegin test for BIN " + testCaseName + ":");
-            int totalWeightInBins = 0;
-            for (int i = 0; i < bestSolution.bins.size(); i++) {
-                Bin bin = bestSolution.bins.get(i);
-                int binTotalWeight = bin.items.stream().mapToInt(item -> item.size).sum();
-                totalWeightInBins += binTotalWeight;
-                // For tracking
-                System.out.println("Bin " + (i + 1) + ": " + bin.items + " - Total weight: " + binTotalWeight + "/" + BIN_CAPACITY);
+            @Override
+            public double estimateCost(BppInstance instance, Map<String, String> config, int budget) {
+                return 3e-5 * instance.getItemCount() * (budget > 0 ? budget : GENERATIONS)
+                        * Solver.intParameter(config, "offspringSize", OFFSPRING_SIZE);
             }
+        };
+    }
 
-            // Calculate and print the total weight of all items
-            int totalWeightOfAllItems = items.stream().mapToInt(item -> item.size).sum();
-            System.out.println("Total weight in bins for " + testCaseName + ": " + totalWeightInBins);
-            System.out.println("Total weight of all items in " + testCaseName + ": " + totalWeightOfAllItems + ANSI_BLUE);
+    private static int totalItemWeight(int[] sizes) {
+        return Arrays.stream(sizes).sum();
+    }
+
+    public static void main(String[] args) throws IOException {
+        long startTime = System.currentTimeMillis();
+        System.out.println("Program started");
 
-            // Check if total weights match
-            if(totalWeightOfAllItems != totalWeightInBins){
-                System.out.println("Warning: There is a discrepancy in the total weights for " + testCaseName + ANSI_RED);
+        // "--scaling" prints the offspring throughput of the parallel MGG per number of threads instead of solving
+        if (args.length > 0 && args[0].equals("--scaling")) {
+            int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+            try (BppReader reader = new BppReader(Path.of(BPP_FILE))) {
+                while (reader.hasNext()) {
+                    BppInstance instance = reader.next();
+                    printScalingReport(instance.getName(), instance.expand(), instance.getBinCapacity(), rounds);
+                }
             }
-            long endTime = System.currentTimeMillis(); // End timer
-            double totalTime = endTime - startTime; // Calculate total time
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        SplittableRandom mggRandom = new SplittableRandom(SEED);
+
+        try (BppReader reader = new BppReader(Path.of(BPP_FILE))) {
+            while (reader.hasNext()) {
+                BppInstance instance = reader.next();
+                String testCaseName = instance.getName();
+                int[] sizes = instance.expand();
+                int binCapacity = instance.getBinCapacity();
+                List<Item> items = new ArrayList<>(sizes.length);
+                for (int size : sizes) {
+                    items.add(new Item(size));
+                }
+
+                printColored("Solving test case: " + testCaseName, ANSI_YELLOW);
+                System.out.println("Items loaded: " + items.size());
+
+                Individual bestSolution = evolve(sizes, binCapacity, POPULATION_SIZE, OFFSPRING_SIZE, GENERATIONS, random,
+                        new Workspace(), PARALLEL_MGG ? pool : null, mggRandom, REJECT_DUPLICATES, new SearchControl(), true);
+                boolean provenOptimal = bestSolution.binCount == LowerBounds.of(sizes, binCapacity);
+                printColored("Best solution for " + testCaseName + " uses " + bestSolution.binCount + " bins"
+                        + (provenOptimal ? " (proven optimal)." : "."), ANSI_GREEN);
+
+                // Print the details of each bin in the best solution
+                System.out.println("\nBegin test for BIN " + testCaseName + ":");
+                int totalWeightInBins = 0;
+                List<Bin> bestBins = bestSolution.toBins(items);
+                for (int i = 0; i < bestBins.size(); i++) {
+                    Bin bin = bestBins.get(i);
+                    int binTotalWeight = bin.items.stream().mapToInt(item -> item.size).sum();
+                    totalWeightInBins += binTotalWeight;
+                    // For tracking
+                    System.out.println("Bin " + (i + 1) + ": " + bin.items + " - Total weight: " + binTotalWeight + "/" + binCapacity);
+                }
+
+                // Calculate and print the total weight of all items
+                int totalWeightOfAllItems = items.stream().mapToInt(item -> item.size).sum();
+                System.out.println("Total weight in bins for " + testCaseName + ": " + totalWeightInBins);
+                System.out.println("Total weight of all items in " + testCaseName + ": " + totalWeightOfAllItems + ANSI_BLUE);
+
+                // Check if total weights match
+                if(totalWeightOfAllItems != totalWeightInBins){
+                    System.out.println("Warning: There is a discrepancy in the total weights for " + testCaseName + ANSI_RED);
+                }
+                long endTime = System.currentTimeMillis(); // End timer
+                double totalTime = endTime - startTime; // Calculate total time
 
-            System.out.println("Execution Time: " + totalTime/1000 + " seconds");
+                System.out.println("Execution Time: " + totalTime/1000 + " seconds");
 
-            System.out.println("\n");
+                System.out.println("\n");
+            }
         }
     }
 
-    private static double averageFillPercentage(List<Individual> population, int binCapacity) {
+    private static double averageFillPercentage(Population population, int binCapacity) {
         double totalFill = 0;
         int totalBins = 0;
         for (Individual individual : population) {
-            for (Bin bin : individual.bins) {
-                totalFill += ((double) bin.getCurrentSize() / binCapacity);
+            for (int b = 0; b < individual.binCount; b++) {
+                totalFill += ((double) individual.loads[b] / binCapacity);
                 totalBins++;
             }
         }
         return totalBins > 0 ? (totalFill / totalBins) * 100 : 0;
     }
-    private static int calculateDiversity(List<Individual> population) {
-        Set<String> uniqueConfigurations = new HashSet<>();
+    private static double averageBinCount(Population population) {
+        long totalBins = 0;
         for (Individual individual : population) {
-            StringBuilder config = new StringBuilder();
-            for (Bin bin : individual.bins) {
-                List<Integer> items = bin.items.stream().map(Item::getSize).sorted().collect(Collectors.toList());
-                config.append(items.toString());
-            }
-            uniqueConfigurations.add(config.toString());
+            totalBins += individual.binCount;
         }
-        return uniqueConfigurations.size();
+        return (double) totalBins / population.size();
     }
 
-    private static void validateAndLogBinWeights(List<Individual> population, List<Item> allItems, String stage) {
-        int totalItemWeight = allItems.stream().mapToInt(Item::getSize).sum();
-        int totalBinWeight = population.stream()
-                .flatMap(individual -> individual.bins.stream())
-                .flatMap(bin -> bin.items.stream())
-                .distinct()
-                .mapToInt(Item::getSize)
-                .sum();
-
-        if (totalItemWeight != totalBinWeight) {
-            System.out.println(ANSI_RED + "Warning: Weight discrepancy detected after " + stage + ". " +
-                    "Total item weight: " + totalItemWeight + ", Total bin weight: " + totalBinWeight + ANSI_RESET);
+    private static void validateAndLogBinWeights(Population population, int[] sizes, String stage) {
+        int totalItemWeight = totalItemWeight(sizes);
+        for (Individual individual : population) {
+            // Sum the sizes through the bin membership so that a stale load or a lost item shows up as a discrepancy
+            int totalBinWeight = 0;
+            for (int b = 0; b < individual.binCount; b++) {
+                int binWeight = 0;
+                for (int p = individual.binStart[b]; p < individual.binStart[b + 1]; p++) {
+                    binWeight += sizes[individual.members[p]];
+                }
+                totalBinWeight += binWeight == individual.loads[b] ? binWeight : -binWeight;
+            }
+            if (individual.hash != individual.computeHash(sizes)) {
+                System.out.println(ANSI_RED + "Warning: Stale configuration hash detected after " + stage + ANSI_RESET);
+                return;
+            }
 
+            if (totalItemWeight != totalBinWeight) {
+                System.out.println(ANSI_RED + "Warning: Weight discrepancy detected after " + stage + ". " +
+                        "Total item weight: " + totalItemWeight + ", Total bin weight: " + totalBinWeight + ANSI_RESET);
+                return;
+            }
         }
     }
 
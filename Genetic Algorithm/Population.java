@@ -0,0 +1,191 @@
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Steady-state population of the GA. Every individual sits in a fixed slot, and two indexed binary heaps over the slots
+// keep the worst and the best individual on top, so both are found in O(1) and replacing the worst one costs O(log P)
+// instead of a sort of the whole population per offspring. Ties are broken by slot, which keeps runs reproducible.
+// The fitness and packing hash of a slot are cached when it is filled: an individual that is changed in place has to
+// be reported with update(slot) before the next replacement.
+// With duplicate rejection an offspring whose packing hash is already present is not inserted. The hash counts are
+// kept either way, so the number of distinct packings is known in O(1).
+// Offspring producers on several threads may call get() and offer() concurrently: slots are read without locking and
+// always hold a complete individual, replacements are serialized.
+class Population implements Iterable<GeneticAlgorithm.Individual> {
+    private final AtomicReferenceArray<GeneticAlgorithm.Individual> slots;
+    private final int[] fitness;   // Cached getFitness() of every slot
+    private final long[] hashes;   // Cached packing hash of every slot
+    private final Map<Long, Integer> hashCounts = new HashMap<>();
+    private final boolean rejectDuplicates;
+    private final IndexedHeap worst = new IndexedHeap(false);
+    private final IndexedHeap best = new IndexedHeap(true);
+
+    Population(List<GeneticAlgorithm.Individual> individuals, boolean rejectDuplicates) {
+        int size = individuals.size();
+        this.slots = new AtomicReferenceArray<>(size);
+        this.fitness = new int[size];
+        this.hashes = new long[size];
+        this.rejectDuplicates = rejectDuplicates;
+        for (int slot = 0; slot < size; slot++) {
+            place(slot, individuals.get(slot));
+        }
+        worst.build(size);
+        best.build(size);
+    }
+
+    int size() {
+        return fitness.length;
+    }
+
+    GeneticAlgorithm.Individual get(int slot) {
+        return slots.get(slot);
+    }
+
+    synchronized GeneticAlgorithm.Individual best() {
+        return slots.get(best.top());
+    }
+
+    synchronized GeneticAlgorithm.Individual worst() {
+        return slots.get(worst.top());
+    }
+
+    // Number of distinct packings in the population, by packing hash
+    synchronized int distinctCount() {
+        return hashCounts.size();
+    }
+
+    // Replaces the worst individual with offspring if the offspring is fitter and, with duplicate rejection, not a copy
+    // of a packing already in the population. Returns whether it was inserted.
+    synchronized boolean offer(GeneticAlgorithm.Individual offspring) {
+        int slot = worst.top();
+        if (offspring.getFitness() <= fitness[slot] || (rejectDuplicates && hashCounts.containsKey(offspring.hash))) {
+            return false;
+        }
+        removeHash(hashes[slot]);
+        place(slot, offspring);
+        worst.changed(slot);
+        best.changed(slot);
+        return true;
+    }
+
+    // Re-reads the fitness and hash of an individual that was changed in place
+    synchronized void update(int slot) {
+        removeHash(hashes[slot]);
+        place(slot, slots.get(slot));
+        worst.changed(slot);
+        best.changed(slot);
+    }
+
+    @Override
+    public Iterator<GeneticAlgorithm.Individual> iterator() {
+        return new Iterator<>() {
+            private int slot;
+
+            @Override
+            public boolean hasNext() {
+                return slot < size();
+            }
+
+            @Override
+            public GeneticAlgorithm.Individual next() {
+                if (slot >= size()) {
+                    throw new NoSuchElementException();
+                }
+                return slots.get(slot++);
+            }
+        };
+    }
+
+    private void place(int slot, GeneticAlgorithm.Individual individual) {
+        fitness[slot] = individual.getFitness();
+        hashes[slot] = individual.hash;
+        hashCounts.merge(individual.hash, 1, Integer::sum);
+        slots.set(slot, individual); // Publishes the individual to unlocked readers
+    }
+
+    private void removeHash(long hash) {
+        if (hashCounts.merge(hash, -1, Integer::sum) == 0) {
+            hashCounts.remove(hash);
+        }
+    }
+
+    // Binary heap of slots ordered by cached fitness, with the heap position of every slot so that a changed slot can
+    // be sifted from where it is
+    private final class IndexedHeap {
+        private final boolean fittestFirst;
+        private int[] heap;     // Slots in heap order
+        private int[] position; // Heap index of every slot
+
+        IndexedHeap(boolean fittestFirst) {
+            this.fittestFirst = fittestFirst;
+        }
+
+        void build(int size) {
+            heap = new int[size];
+            position = new int[size];
+            for (int i = 0; i < size; i++) {
+                heap[i] = i;
+                position[i] = i;
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        int top() {
+            return heap[0];
+        }
+
+        void changed(int slot) {
+            siftUp(position[slot]);
+            siftDown(position[slot]);
+        }
+
+        // Whether slot a belongs above slot b
+        private boolean above(int a, int b) {
+            if (fitness[a] != fitness[b]) {
+                return fittestFirst ? fitness[a] > fitness[b] : fitness[a] < fitness[b];
+            }
+            return a < b;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!above(heap[i], heap[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heap.length) {
+                    return;
+                }
+                if (child + 1 < heap.length && above(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!above(heap[child], heap[i])) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int slot = heap[i];
+            heap[i] = heap[j];
+            heap[j] = slot;
+            position[heap[i]] = i;
+            position[heap[j]] = j;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.random.RandomGenerator;
+
+// Distance, move and noise loops of the firefly swarm over its flat primitive arrays. When the JVM runs with
+// --add-modules jdk.incubator.vector they run as FloatVector kernels, see VectorFireflyKernels, and otherwise as the
+// scalar loops below. VectorFireflyKernels is only loaded once a kernel is used with the module present, so the class
+// path works without the module. The integer kernels give the same result either way; the float distance is summed
+// in another order by the vector kernel and can differ in the last bits, and so can the vector sin, cos and log.
+final class FireflyKernels {
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private FireflyKernels() {
+    }
+
+    // Euclidean distance between two integer fireflies of n positions in [0, capacity]
+    static double distance(int[] a, int aOffset, int[] b, int bOffset, int n, int capacity) {
+        if (VECTORIZED && VectorFireflyKernels.exactIntDistance(capacity)) {
+            return Math.sqrt(VectorFireflyKernels.squaredDistance(a, aOffset, b, bOffset, n));
+        }
+        // Squared differences of positions up to capacity overflow an int once summed, so they are summed in a long
+        long sum = 0;
+        for (int k = 0; k < n; k++) {
+            long difference = a[aOffset + k] - b[bOffset + k];
+            sum += difference * difference;
+        }
+        return Math.sqrt(sum);
+    }
+
+    // Euclidean distance between two random-key fireflies of n keys
+    static double distance(float[] a, int aOffset, float[] b, int bOffset, int n) {
+        if (VECTORIZED) {
+            return Math.sqrt(VectorFireflyKernels.squaredDistance(a, aOffset, b, bOffset, n));
+        }
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            float difference = a[aOffset + k] - b[bOffset + k];
+            sum += difference * difference;
+        }
+        return Math.sqrt(sum);
+    }
+
+    // Moves every position a fraction beta towards the brighter firefly plus noise times its Gaussian, truncated to an
+    // int and clamped to [0, capacity]
+    static void move(int[] swarm, int offset, int[] brighter, int brighterOffset, float beta, float noise,
+                     float[] gaussian, int n, int capacity) {
+        int start = VECTORIZED ? VectorFireflyKernels.move(swarm, offset, brighter, brighterOffset, beta, noise, gaussian, n, capacity) : 0;
+        for (int i = start; i < n; i++) {
+            int position = swarm[offset + i];
+            int movement = (int) ((brighter[brighterOffset + i] - position) * beta + noise * gaussian[i]);
+            swarm[offset + i] = Math.min(Math.max(position + movement, 0), capacity); // Ensuring the new position is within bounds
+        }
+    }
+
+    // Random-key counterpart of the integer move, keys are unbounded so nothing is clamped
+    static void move(float[] keys, int offset, float[] brighter, int brighterOffset, float beta, float noise,
+                     float[] gaussian, int n) {
+        int start = VECTORIZED ? VectorFireflyKernels.move(keys, offset, brighter, brighterOffset, beta, noise, gaussian, n) : 0;
+        for (int i = start; i < n; i++) {
+            float key = keys[offset + i];
+            keys[offset + i] = key + (brighter[brighterOffset + i] - key) * beta + noise * gaussian[i];
+        }
+    }
+
+    // Fills gaussian[0 .. n) with standard normals, buffer length at least n rounded up to even. The uniforms are
+    // drawn first and then turned into normals two at a time by the Box-Muller transform: uniforms u1 = buffer[i] and
+    // u2 = buffer[i + pairs] give r cos(2 pi u2) and r sin(2 pi u2) with r = sqrt(-2 ln u1). One logarithm, square
+    // root, sine and cosine per pair, in one loop without branches, instead of a nextGaussian call per position.
+    static void gaussians(float[] buffer, int n, RandomGenerator random) {
+        int pairs = (n + 1) >>> 1;
+        for (int i = 0; i < 2 * pairs; i++) {
+            buffer[i] = 1.0f - random.nextFloat(); // (0, 1], ln 0 would be infinite
+        }
+        int start = VECTORIZED ? VectorFireflyKernels.boxMuller(buffer, pairs) : 0;
+        for (int i = start; i < pairs; i++) {
+            double radius = Math.sqrt(-2.0 * Math.log(buffer[i]));
+            double angle = 2.0 * Math.PI * buffer[i + pairs];
+            buffer[i] = (float) (radius * Math.cos(angle));
+            buffer[i + pairs] = (float) (radius * Math.sin(angle));
+        }
+    }
+}
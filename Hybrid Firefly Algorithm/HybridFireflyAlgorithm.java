@@ -1,211 +1,414 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
 
 public class HybridFireflyAlgorithm {
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long SEED = 42;
+    private static final int SCALING_SWARM_SIZE = 150; // Swarm size of the "--scaling" report
+    // The integer encoding of the original HFA moves the item weights themselves, which stops being a permutation of
+    // the items after a move. In random-key mode fireflies hold a float key per item instead and are decoded by
+    // sorting the items by key, see RandomKeySorter. Off by default so that results compare with the original HFA,
+    // the batch runner turns it on with HFA.randomKeys=true.
+    private static final boolean RANDOM_KEY_ENCODING = false;
     private List<Integer> items; // Items to be packed
-    private List<List<Integer>> population; // Population of solutions
-    private List<Integer> bestConfiguration; // Best configuration found
+    // Population of solutions as one flat array: firefly i occupies swarm[i * numItems .. (i + 1) * numItems).
+    // Every generation writes the moved fireflies into nextSwarm and the two arrays are swapped.
+    private int[] swarm;
+    private int[] nextSwarm;
+    // Random-key mode keeps the swarm in the same layout as keys instead, firefly i's key for item k is
+    // keys[i * numItems + k]
+    private final boolean randomKeys;
+    private float[] keys;
+    private float[] nextKeys;
+    private int[] itemSizes;
+    private int swarmSize;
+    private int numItems;
+    private int[] bestConfiguration; // Best configuration found
     private int bestBinCount; // Number of bins in the best configuration
+    private int lowerBound; // The swarm stops once the best configuration packs into this many bins, it is optimal then
+    private SearchControl control = new SearchControl();
     private int binCapacity;
     private double gamma; // Light absorption coefficient
     private double beta0; // Initial attractiveness
     private double alpha; // Randomness component
     private double mutationRate;
     private Random random;
+    // Fireflies are evaluated on several threads, every thread decodes with its own engine
+    private final ThreadLocal<PackingEngine> packers = ThreadLocal.withInitial(PackingEngine::new);
+    // Gaussian noise of one move, generated in bulk before the move kernel runs, see FireflyKernels.gaussians
+    private final ThreadLocal<float[]> gaussians = ThreadLocal.withInitial(() -> new float[(numItems + 1) & ~1]);
+    private final ThreadLocal<RandomKeySorter> sorters = ThreadLocal.withInitial(RandomKeySorter::new);
 
     public HybridFireflyAlgorithm(int binCapacity, List<Integer> items, int populationSize, double gamma, double beta0, double alpha, double mutationRate) {
+        this(binCapacity, items, populationSize, gamma, beta0, alpha, mutationRate, RANDOM_KEY_ENCODING);
+    }
+
+    public HybridFireflyAlgorithm(int binCapacity, List<Integer> items, int populationSize, double gamma, double beta0, double alpha, double mutationRate, boolean randomKeys) {
+        this(binCapacity, items, populationSize, gamma, beta0, alpha, mutationRate, randomKeys, new Random());
+    }
+
+    // The random generator only draws the initial swarm, optimize takes its own seed
+    public HybridFireflyAlgorithm(int binCapacity, List<Integer> items, int populationSize, double gamma, double beta0, double alpha, double mutationRate, boolean randomKeys, Random random) {
+        this.randomKeys = randomKeys;
         this.binCapacity = binCapacity;
         this.items = new ArrayList<>(items);
         this.gamma = gamma;
         this.beta0 = beta0;
         this.alpha = alpha;
         this.mutationRate = mutationRate;
-        this.population = new ArrayList<>();
         this.bestBinCount = Integer.MAX_VALUE;
-        this.random = new Random();
+        this.random = random;
 
         initializePopulation(populationSize);
     }
 
     private void initializePopulation(int populationSize) {
+        swarmSize = populationSize;
+        numItems = items.size();
+        itemSizes = items.stream().mapToInt(Integer::intValue).toArray();
+        lowerBound = LowerBounds.of(itemSizes, binCapacity);
+        if (randomKeys) {
+            keys = new float[populationSize * numItems];
+            nextKeys = new float[populationSize * numItems];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextFloat();
+            }
+            return;
+        }
+        swarm = new int[populationSize * numItems];
+        nextSwarm = new int[populationSize * numItems];
         for (int i = 0; i < populationSize; i++) {
             Collections.shuffle(items, random);
-            population.add(new ArrayList<>(items));
+            for (int k = 0; k < numItems; k++) {
+                swarm[i * numItems + k] = items.get(k);
+            }
         }
     }
 
     public void optimize(int maxGenerations) {
-        for (int t = 0; t < maxGenerations; t++) {
-            List<List<Integer>> newPopulation = new ArrayList<>();
-            for (int i = 0; i < population.size(); i++) {
-                List<Integer> newFirefly = new ArrayList<>(population.get(i));
-                int currentBinCount = evaluate(newFirefly);
-                if (currentBinCount < bestBinCount) {
-                    bestBinCount = currentBinCount;
-                    bestConfiguration = new ArrayList<>(newFirefly);
+        optimize(maxGenerations, THREADS, random.nextLong());
+    }
+
+    // The population does not change within a generation, so the brightness of every firefly is computed once per
+    // generation and the fireflies are sorted from brightest to dimmest. A firefly then only visits the prefix of
+    // strictly brighter ones instead of decoding every other firefly again, which turns O(P^2) decodes per generation
+    // into P. The moves of different fireflies only read the old population, so both the evaluations and the moves
+    // run in parallel. Every firefly draws from its own SplittableRandom split off the seed in firefly order, so a
+    // fixed seed gives the same swarm at any thread count.
+    public void optimize(int maxGenerations, int threads, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            SplittableRandom seeds = new SplittableRandom(seed);
+            int size = swarmSize;
+            int[] brightness = new int[size]; // Evaluation of every firefly, fewer bins is brighter
+            Integer[] order = new Integer[size];
+            Telemetry telemetry = control.getTelemetry();
+            for (int t = 0; t < maxGenerations && !(t > 0 && control.shouldStop()); t++) {
+                int[] current = swarm;
+                int[] next = nextSwarm;
+                float[] currentKeys = keys;
+                float[] nextKeys = this.nextKeys;
+                List<Callable<Void>> evaluations = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    int firefly = i;
+                    evaluations.add(() -> {
+                        brightness[firefly] = randomKeys ? evaluateKeys(currentKeys, firefly * numItems)
+                                : evaluate(current, firefly * numItems);
+                        return null;
+                    });
                 }
+                long start = telemetry.startPhase();
+                invokeAll(pool, evaluations);
+                telemetry.stopPhase(Telemetry.Operator.EVALUATE, start);
 
-                for (int j = 0; j < population.size(); j++) {
-                    if (i != j) {
-                        if (evaluate(population.get(j)) < currentBinCount) {
-                            moveFirefly(newFirefly, population.get(j));
-                        }
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, Comparator.comparingInt(i -> brightness[i])); // Stable, ties keep firefly order
+                if (size > 0 && brightness[order[0]] < bestBinCount) {
+                    bestBinCount = brightness[order[0]];
+                    bestConfiguration = randomKeys ? decodeKeys(currentKeys, order[0] * numItems)
+                            : Arrays.copyOfRange(current, order[0] * numItems, (order[0] + 1) * numItems);
+                    int[] configuration = bestConfiguration;
+                    control.improved(() -> SolverResult.fromBins(packBins(configuration, binCapacity)));
+                    if (provenOptimal()) {
+                        break;
                     }
                 }
+                if (control.shouldStop()) {
+                    break;
+                }
 
-                if (random.nextDouble() < mutationRate) {
-                    mutateFirefly(newFirefly);
+                List<Callable<Void>> moves = new ArrayList<>();
+                double generationAlpha = alpha;
+                double generationMutationRate = mutationRate;
+                for (int i = 0; i < size; i++) {
+                    int firefly = i;
+                    SplittableRandom fireflyRandom = seeds.split();
+                    moves.add(() -> {
+                        int offset = firefly * numItems;
+                        if (randomKeys) {
+                            System.arraycopy(currentKeys, offset, nextKeys, offset, numItems);
+                        } else {
+                            System.arraycopy(current, offset, next, offset, numItems);
+                        }
+                        for (int rank = 0; rank < size && brightness[order[rank]] < brightness[firefly] && !control.shouldStop(); rank++) {
+                            if (randomKeys) {
+                                moveKeys(nextKeys, offset, currentKeys, order[rank] * numItems, generationAlpha, fireflyRandom);
+                            } else {
+                                moveFirefly(next, offset, current, order[rank] * numItems, generationAlpha, fireflyRandom);
+                            }
+                        }
+                        if (fireflyRandom.nextDouble() < generationMutationRate) {
+                            if (randomKeys) {
+                                mutateKeys(nextKeys, offset, fireflyRandom);
+                            } else {
+                                mutateFirefly(next, offset, fireflyRandom);
+                            }
+                        }
+                        return null;
+                    });
+                }
+                start = telemetry.startPhase();
+                invokeAll(pool, moves);
+                telemetry.stopPhase(Telemetry.Operator.MOVE, start);
+                if (telemetry.isEnabled()) {
+                    double mean = Arrays.stream(brightness).average().orElse(0);
+                    int distinct = (int) Arrays.stream(brightness).distinct().count();
+                    telemetry.endGeneration(t, size > 0 ? brightness[order[0]] : 0, mean, distinct, size, size);
                 }
-                newPopulation.add(newFirefly);
+                nextSwarm = current;
+                swarm = next;
+                this.nextKeys = currentKeys;
+                keys = nextKeys;
+                // Dynamic adjustment of mutation rate and alpha
+                mutationRate *= (1.0 - (double) t / maxGenerations);
+                alpha *= 0.95; // Decrease alpha to reduce randomness over time
             }
-            population = newPopulation;
-            // Dynamic adjustment of mutation rate and alpha
-           mutationRate *= (1.0 - (double) t / maxGenerations);
-            alpha *= 0.95; // Decrease alpha to reduce randomness over time
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Ends optimize after the current generation's evaluation, or between two moves of a firefly, once control says so.
+    // The first generation is always evaluated, so there is a best configuration to return. control also receives
+    // every new best configuration.
+    public void setSearchControl(SearchControl control) {
+        this.control = control;
+    }
+
+    // True if the best configuration packs into lowerBound bins. Moves in the integer encoding do not preserve the
+    // item multiset, so the configuration must also still hold exactly the instance's items to count as a solution.
+    private boolean provenOptimal() {
+        if (bestConfiguration == null || packBins(bestConfiguration, binCapacity).size() > lowerBound) {
+            return false;
         }
+        int[] packed = bestConfiguration.clone();
+        int[] expected = itemSizes.clone();
+        Arrays.sort(packed);
+        Arrays.sort(expected);
+        return Arrays.equals(packed, expected);
     }
 
-    private void moveFirefly(List<Integer> firefly, List<Integer> brighterFirefly) {
-        double r = calculateDistance(firefly, brighterFirefly);
-        double beta = beta0 * Math.exp(-gamma * r);
-        for (int i = 0; i < firefly.size(); i++) {
-            int movement = (int) ((brighterFirefly.get(i) - firefly.get(i)) * beta + alpha * random.nextGaussian());
-            firefly.set(i, Math.min(Math.max(firefly.get(i) + movement, 0), binCapacity)); // Ensuring the new position is within bounds
+    private static void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Firefly generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Firefly update failed", e.getCause());
         }
     }
 
-    private void mutateFirefly(List<Integer> firefly) {
-        int segmentLength = firefly.size() / 4;  // Example: mutate a quarter of the list
-        int start = random.nextInt(firefly.size() - segmentLength);
+    // Moves the firefly at offset in swarm towards the brighter one at brighterOffset in brighterSwarm. The Gaussian
+    // noise for all positions is generated into a buffer first, so the move itself is a branch-free kernel over
+    // primitive arrays, see FireflyKernels.
+    private void moveFirefly(int[] swarm, int offset, int[] brighterSwarm, int brighterOffset, double alpha, RandomGenerator random) {
+        double r = calculateDistance(swarm, offset, brighterSwarm, brighterOffset);
+        float beta = (float) (beta0 * Math.exp(-gamma * r));
+        float[] gaussian = gaussians.get();
+        FireflyKernels.gaussians(gaussian, numItems, random);
+        FireflyKernels.move(swarm, offset, brighterSwarm, brighterOffset, beta, (float) alpha, gaussian, numItems, binCapacity);
+    }
+
+    private void mutateFirefly(int[] swarm, int offset, RandomGenerator random) {
+        int segmentLength = numItems / 4;  // Example: mutate a quarter of the list
+        int start = offset + random.nextInt(numItems - segmentLength);
         int end = start + segmentLength;
-        List<Integer> subList = new ArrayList<>(firefly.subList(start, end));
-        Collections.shuffle(subList, random);
-        for (int i = start; i < end; i++) {
-            firefly.set(i, subList.get(i - start));
+        for (int i = end - 1; i > start; i--) { // Fisher-Yates shuffle of the segment in place
+            int j = start + random.nextInt(i - start + 1);
+            int swap = swarm[i];
+            swarm[i] = swarm[j];
+            swarm[j] = swap;
         }
     }
 
+    // Random-key counterpart of moveFirefly. Keys are unbounded floats, so the move needs no clamping, and any key
+    // vector still decodes to a permutation of the real items.
+    private void moveKeys(float[] keys, int offset, float[] brighterKeys, int brighterOffset, double alpha, RandomGenerator random) {
+        double r = FireflyKernels.distance(keys, offset, brighterKeys, brighterOffset, numItems);
+        float beta = (float) (beta0 * Math.exp(-gamma * r));
+        float[] gaussian = gaussians.get();
+        FireflyKernels.gaussians(gaussian, numItems, random);
+        FireflyKernels.move(keys, offset, brighterKeys, brighterOffset, beta, (float) alpha, gaussian, numItems);
+    }
 
-    private double calculateDistance(List<Integer> config1, List<Integer> config2) {
-        double sum = 0.0;
-        for (int k = 0; k < Math.min(config1.size(), config2.size()); k++) {
-            sum += Math.pow(config1.get(k) - config2.get(k), 2);
+    // Shuffles the keys of a quarter of the items, which shuffles the decode order of those items among themselves
+    private void mutateKeys(float[] keys, int offset, RandomGenerator random) {
+        int segmentLength = numItems / 4;
+        int start = offset + random.nextInt(numItems - segmentLength);
+        int end = start + segmentLength;
+        for (int i = end - 1; i > start; i--) {
+            int j = start + random.nextInt(i - start + 1);
+            float swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
         }
-        return Math.sqrt(sum);
     }
 
-    private int evaluate(List<Integer> configuration) {
-        List<List<Integer>> bins = packBins(configuration, binCapacity);
-        int penalty = 0;
-        for (List<Integer> bin : bins) {
-            int binLoad = bin.stream().mapToInt(Integer::intValue).sum();
-            penalty += binCapacity - binLoad; // Penalize for unused space
+    // Euclidean distance between two fireflies
+    double calculateDistance(int[] swarm1, int offset1, int[] swarm2, int offset2) {
+        return FireflyKernels.distance(swarm1, offset1, swarm2, offset2, numItems, binCapacity);
+    }
+
+    int evaluate(int[] swarm, int offset) {
+        PackingEngine packer = packers.get();
+        packer.reset(binCapacity, numItems);
+        for (int i = offset; i < offset + numItems; i++) {
+            packer.firstFit(swarm[i]);
         }
-        return bins.size() + penalty / 1000;  // Adjust the penalty factor appropriately
+        long penalty = packer.getWaste(); // Penalize for unused space
+        return (int) (packer.getBinCount() + penalty / 1000);  // Adjust the penalty factor appropriately
     }
 
-    private static List<List<Integer>> packBins(List<Integer> items, int capacity) {
+    // Decodes a random-key firefly: the items in key order, packed with First-Fit like evaluate does
+    int evaluateKeys(float[] keys, int offset) {
+        int[] order = sorters.get().sort(keys, offset, numItems);
+        PackingEngine packer = packers.get();
+        packer.reset(binCapacity, numItems);
+        for (int i = 0; i < numItems; i++) {
+            packer.firstFit(itemSizes[order[i]]);
+        }
+        long penalty = packer.getWaste(); // Penalize for unused space
+        return (int) (packer.getBinCount() + penalty / 1000);  // Adjust the penalty factor appropriately
+    }
+
+    // Item weights of a random-key firefly in decode order
+    private int[] decodeKeys(float[] keys, int offset) {
+        int[] order = sorters.get().sort(keys, offset, numItems);
+        int[] configuration = new int[numItems];
+        for (int i = 0; i < numItems; i++) {
+            configuration[i] = itemSizes[order[i]];
+        }
+        return configuration;
+    }
+
+    private static List<List<Integer>> packBins(int[] items, int capacity) {
+        PackingEngine packer = new PackingEngine(capacity, items.length);
         List<List<Integer>> bins = new ArrayList<>();
         for (int item : items) {
-            boolean placed = false;
-            for (List<Integer> bin : bins) {
-                int currentWeight = bin.stream().mapToInt(Integer::intValue).sum();
-                if (currentWeight + item <= capacity) {
-                    bin.add(item);
-                    placed = true;
-                    break;
-                }
-            }
-            if (!placed) {
-                List<Integer> newBin = new ArrayList<>();
-                newBin.add(item);
-                bins.add(newBin);
+            int bin = packer.firstFit(item);
+            if (bin == bins.size()) {
+                bins.add(new ArrayList<>());
             }
+            bins.get(bin).add(item);
         }
         return bins;
     }
 
-    private static List<Object[]> parseBPPFile(String filePath) {
-        List<Object[]> testCases = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            List<Integer> items = null;
-            String testName = null; // Variable to store the test case name
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("TEST")) {
-                    if (items != null) {
-                        testCases.add(new Object[]{testName, new ArrayList<>(items)});
-                    }
-                    testName = line.trim(); // Save the test case name
-                    items = new ArrayList<>();
-                } else {
-                    String[] parts = line.trim().split("\\s+");
-                    if(parts.length == 2){
-                        int weight = Integer.parseInt(parts[0]);
-                        int count = Integer.parseInt(parts[1]);
-                        for(int i = 0; i < count; i++){
-                            items.add(weight);
-                        }
-                    }
-                }
+    // Entry point for the batch runner. Config keys: swarm, gamma, beta0, alpha, mutationRate, randomKeys. The budget is
+    // the number of generations. The swarm runs on one thread, the runner parallelises across jobs.
+    public static Solver solver() {
+        return new Solver() {
+            @Override
+            public String getName() {
+                return "HFA";
             }
-            if (items != null) {
-                testCases.add(new Object[]{testName, items}); // Add the last test case
+
+            @Override
+            public SolverResult solve(BppInstance instance, Map<String, String> config, long seed, int budget,
+                                      SearchControl control) {
+                List<Integer> items = Arrays.stream(instance.expand()).boxed().toList();
+                HybridFireflyAlgorithm hfa = new HybridFireflyAlgorithm(instance.getBinCapacity(), items,
+                        Solver.intParameter(config, "swarm", 15), Solver.doubleParameter(config, "gamma", 0.3),
+                        Solver.doubleParameter(config, "beta0", 0.3), Solver.doubleParameter(config, "alpha", 0.1),
+                        Solver.doubleParameter(config, "mutationRate", 0.95),
+                        Solver.booleanParameter(config, "randomKeys", RANDOM_KEY_ENCODING), new Random(seed));
+                hfa.setSearchControl(control);
+                hfa.optimize(budget > 0 ? budget : 100, 1, seed);
+                return SolverResult.fromBins(packBins(hfa.bestConfiguration, hfa.binCapacity));
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return testCases;
-    }
 
+            @Override
+            public double estimateCost(BppInstance instance, Map<String, String> config, int budget) {
+                int swarm = Solver.intParameter(config, "swarm", 15);
+                return 5e-5 * instance.getItemCount() * (budget > 0 ? budget : 100) * swarm * swarm / 2;
+            }
+        };
+    }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         String filePath = "Hybrid Firefly Algorithm/BPP.txt";
-        List<Object[]> testCases = parseBPPFile(filePath);
         long startTime = System.currentTimeMillis();
+        // "--scaling" prints the generation throughput of a swarm of SCALING_SWARM_SIZE per number of threads instead
+        boolean scalingReport = args.length > 0 && args[0].equals("--scaling");
+
+        try (BppReader reader = new BppReader(Path.of(filePath))) {
+            while (reader.hasNext()) {
+                BppInstance testCase = reader.next();
+                String testName = testCase.getName(); // Get the test case name
+                List<Integer> testCaseItems = Arrays.stream(testCase.expand()).boxed().toList();
+                if (scalingReport) {
+                    printScalingReport(testName, testCaseItems);
+                    continue;
+                }
+                HybridFireflyAlgorithm hfa = new HybridFireflyAlgorithm(testCase.getBinCapacity(), testCaseItems, 15, 0.3, 0.3, 0.1, 0.95);
+                hfa.optimize(100);
+                System.out.println("Optimization completed for dataset " + testName + ".");
+                List<List<Integer>> bins = evaluateBins(hfa.bestConfiguration, hfa.binCapacity);
+                System.out.println("Number of bins used: " + bins.size() + (hfa.provenOptimal() ? " (proven optimal)" : ""));
 
-        for (Object[] testCase : testCases) {
-            String testName = (String) testCase[0]; // Get the test case name
-            List<Integer> testCaseItems = (List<Integer>) testCase[1];
-            HybridFireflyAlgorithm hfa = new HybridFireflyAlgorithm(10000, testCaseItems, 15, 0.3, 0.3, 0.1, 0.95);
-            hfa.optimize(100);
-            System.out.println("Optimization completed for dataset " + testName + ".");
-            List<List<Integer>> bins = evaluateBins(hfa.bestConfiguration, hfa.binCapacity);
-            System.out.println("Number of bins used: " + bins.size());
-
-            // We need to reevaluate the best configuration to display bins correctly
-            for (int i = 0; i < bins.size(); i++) {
-                List<Integer> bin = bins.get(i);
-                int binWeight = bin.stream().mapToInt(Integer::intValue).sum();
-                System.out.println("Bin " + (i + 1) + " contains: " + bin + " - Bin weight: " + binWeight + " out of " + hfa.binCapacity);
+                // We need to reevaluate the best configuration to display bins correctly
+                for (int i = 0; i < bins.size(); i++) {
+                    List<Integer> bin = bins.get(i);
+                    int binWeight = bin.stream().mapToInt(Integer::intValue).sum();
+                    System.out.println("Bin " + (i + 1) + " contains: " + bin + " - Bin weight: " + binWeight + " out of " + hfa.binCapacity);
+                }
             }
         }
+
         long stopTime = System.currentTimeMillis(); // Stop time
         long elapsedTime = stopTime - startTime; // Elapsed time
         System.out.println("Elapsed time: " + elapsedTime + " milliseconds");
     }
 
-    private static List<List<Integer>> evaluateBins(List<Integer> configuration, int binCapacity) {
-        List<List<Integer>> bins = new ArrayList<>();
-        for (int item : configuration) {
-            boolean placed = false;
-            for (List<Integer> bin : bins) {
-                int currentWeight = bin.stream().mapToInt(Integer::intValue).sum();
-                if (currentWeight + item <= binCapacity) {
-                    bin.add(item);
-                    placed = true;
-                    break;
-                }
-            }
-            if (!placed) {
-                List<Integer> newBin = new ArrayList<>();
-                newBin.add(item);
-                bins.add(newBin);
-            }
+    // Runs the same swarm from the same seed on 1, 2, 4, ... threads and prints the generations per second of each.
+    // The best evaluation is printed as well, it has to be identical on every line.
+    private static void printScalingReport(String testName, List<Integer> items) {
+        int generations = 20;
+        new HybridFireflyAlgorithm(10000, items, SCALING_SWARM_SIZE, 0.3, 0.3, 0.1, 0.95).optimize(generations, THREADS, SEED); // JIT warm-up
+        System.out.println("Swarm scaling for " + testName + " (" + items.size() + " items, " + SCALING_SWARM_SIZE
+                + " fireflies, " + generations + " generations)");
+        for (int threads = 1; threads <= THREADS; threads = threads < THREADS ? Math.min(threads * 2, THREADS) : threads + 1) {
+            HybridFireflyAlgorithm hfa = new HybridFireflyAlgorithm(10000, items, SCALING_SWARM_SIZE, 0.3, 0.3, 0.1, 0.95);
+            long start = System.nanoTime();
+            hfa.optimize(generations, threads, SEED);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Threads: %2d, Generations/sec: %8.2f, Best evaluation: %d%n", threads, generations / seconds, hfa.bestBinCount);
         }
-        return bins;
+    }
+
+    private static List<List<Integer>> evaluateBins(int[] configuration, int binCapacity) {
+        return packBins(configuration, binCapacity);
     }
 
 }
\ No newline at end of file
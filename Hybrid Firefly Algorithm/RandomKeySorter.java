@@ -0,0 +1,60 @@
+import java.util.Arrays;
+
+// Sorts item indices by their random key in O(n), which is how a random-key firefly is decoded into an item order.
+// Keys are mapped to ints whose unsigned order is the float order (positive keys get their sign bit set, negative
+// keys have all bits flipped) and sorted with a stable LSD radix sort in four passes of 8 bits. A pass whose digit
+// is the same for every key does not change the order and is skipped.
+// A sorter keeps its buffers between calls and is not thread-safe.
+public class RandomKeySorter {
+    private static final int RADIX_BITS = 8;
+    private static final int BUCKETS = 1 << RADIX_BITS;
+
+    private int[] bits = new int[0];
+    private int[] sortedBits = new int[0];
+    private int[] order = new int[0];
+    private int[] sortedOrder = new int[0];
+    private final int[] counts = new int[BUCKETS];
+
+    // Returns the indices 0..length-1 ordered by keys[offset + index], ties in index order. The returned array is
+    // reused by the next call and only its first length entries are valid.
+    public int[] sort(float[] keys, int offset, int length) {
+        if (order.length < length) {
+            bits = new int[length];
+            sortedBits = new int[length];
+            order = new int[length];
+            sortedOrder = new int[length];
+        }
+        for (int i = 0; i < length; i++) {
+            int raw = Float.floatToRawIntBits(keys[offset + i]);
+            bits[i] = raw ^ ((raw >> 31) | Integer.MIN_VALUE);
+            order[i] = i;
+        }
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++) {
+                counts[(bits[i] >>> shift) & (BUCKETS - 1)]++;
+            }
+            if (length == 0 || counts[(bits[0] >>> shift) & (BUCKETS - 1)] == length) {
+                continue; // Every key has the same digit
+            }
+            int start = 0;
+            for (int digit = 0; digit < BUCKETS; digit++) {
+                int count = counts[digit];
+                counts[digit] = start;
+                start += count;
+            }
+            for (int i = 0; i < length; i++) {
+                int position = counts[(bits[i] >>> shift) & (BUCKETS - 1)]++;
+                sortedBits[position] = bits[i];
+                sortedOrder[position] = order[i];
+            }
+            int[] swap = bits;
+            bits = sortedBits;
+            sortedBits = swap;
+            swap = order;
+            order = sortedOrder;
+            sortedOrder = swap;
+        }
+        return order;
+    }
+}
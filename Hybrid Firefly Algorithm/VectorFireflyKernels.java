@@ -0,0 +1,90 @@
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// FloatVector kernels of FireflyKernels, used only when the jdk.incubator.vector module is present. The integer
+// kernels work on IntVectors of the same lane count as the float ones, so a conversion between them keeps the shape.
+// Every kernel handles the whole vectors and returns where the caller's scalar loop takes over, or does the tail itself.
+final class VectorFireflyKernels {
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED; // Same bit size as FLOATS
+    private static final float TWO_PI = (float) (2 * Math.PI);
+
+    private VectorFireflyKernels() {
+    }
+
+    // The integer distance sums the squares of a vector in int lanes, which is exact while a full vector of squared
+    // differences of up to capacity fits into an int
+    static boolean exactIntDistance(int capacity) {
+        return (long) INTS.length() * capacity * capacity <= Integer.MAX_VALUE;
+    }
+
+    static long squaredDistance(int[] a, int aOffset, int[] b, int bOffset, int n) {
+        long sum = 0;
+        int i = 0;
+        for (int bound = INTS.loopBound(n); i < bound; i += INTS.length()) {
+            IntVector difference = IntVector.fromArray(INTS, a, aOffset + i).sub(IntVector.fromArray(INTS, b, bOffset + i));
+            sum += difference.mul(difference).reduceLanesToLong(VectorOperators.ADD);
+        }
+        for (; i < n; i++) {
+            long difference = a[aOffset + i] - b[bOffset + i];
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    static double squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int n) {
+        FloatVector sums = FloatVector.zero(FLOATS);
+        int i = 0;
+        for (int bound = FLOATS.loopBound(n); i < bound; i += FLOATS.length()) {
+            FloatVector difference = FloatVector.fromArray(FLOATS, a, aOffset + i).sub(FloatVector.fromArray(FLOATS, b, bOffset + i));
+            sums = sums.add(difference.mul(difference));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            float difference = a[aOffset + i] - b[bOffset + i];
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    // The float arithmetic is the scalar loop's, operation for operation, and F2I truncates like an (int) cast
+    static int move(int[] swarm, int offset, int[] brighter, int brighterOffset, float beta, float noise,
+                    float[] gaussian, int n, int capacity) {
+        int bound = INTS.loopBound(n);
+        for (int i = 0; i < bound; i += INTS.length()) {
+            IntVector position = IntVector.fromArray(INTS, swarm, offset + i);
+            FloatVector towards = (FloatVector) IntVector.fromArray(INTS, brighter, brighterOffset + i).sub(position)
+                    .convert(VectorOperators.I2F, 0);
+            FloatVector movement = towards.mul(beta).add(FloatVector.fromArray(FLOATS, gaussian, i).mul(noise));
+            position.add((IntVector) movement.convert(VectorOperators.F2I, 0)).max(0).min(capacity)
+                    .intoArray(swarm, offset + i);
+        }
+        return bound;
+    }
+
+    static int move(float[] keys, int offset, float[] brighter, int brighterOffset, float beta, float noise,
+                    float[] gaussian, int n) {
+        int bound = FLOATS.loopBound(n);
+        for (int i = 0; i < bound; i += FLOATS.length()) {
+            FloatVector key = FloatVector.fromArray(FLOATS, keys, offset + i);
+            key.add(FloatVector.fromArray(FLOATS, brighter, brighterOffset + i).sub(key).mul(beta))
+                    .add(FloatVector.fromArray(FLOATS, gaussian, i).mul(noise))
+                    .intoArray(keys, offset + i);
+        }
+        return bound;
+    }
+
+    static int boxMuller(float[] buffer, int pairs) {
+        int bound = FLOATS.loopBound(pairs);
+        for (int i = 0; i < bound; i += FLOATS.length()) {
+            FloatVector radius = FloatVector.fromArray(FLOATS, buffer, i).lanewise(VectorOperators.LOG).mul(-2.0f)
+                    .lanewise(VectorOperators.SQRT);
+            FloatVector angle = FloatVector.fromArray(FLOATS, buffer, i + pairs).mul(TWO_PI);
+            radius.mul(angle.lanewise(VectorOperators.COS)).intoArray(buffer, i);
+            radius.mul(angle.lanewise(VectorOperators.SIN)).intoArray(buffer, i + pairs);
+        }
+        return bound;
+    }
+}
@@ -0,0 +1,52 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchRunnerTest {
+    private static final String INSTANCES = "Genetic Algorithm/BPP.txt";
+
+    // Several GA runs at once, each on its own workspace. Runs that shared scratch space packed into each other's
+    // engines, which threw or returned packings that lost items.
+    @Test
+    void concurrentGeneticAlgorithmRunsAreFeasible(@TempDir Path directory) throws IOException, InterruptedException {
+        Path results = directory.resolve("results.jsonl");
+        BatchRunner.main(new String[]{"--instances", INSTANCES, "--algorithms", "GA", "--seeds", "4", "--budget", "10",
+                "--threads", "8", "--set", "GA.populationSize=300", "--out", results.toString()});
+
+        List<String> lines = Files.readAllLines(results);
+        assertEquals(BppReader.readAll(Path.of(INSTANCES)).size() * 4, lines.size());
+        for (String line : lines) {
+            assertFalse(line.contains("\"error\""), line);
+            assertTrue(line.contains("\"feasible\": true"), line);
+        }
+    }
+
+    // Batch jobs share stdout with the runner's progress lines, so the solvers themselves print nothing
+    @Test
+    void solversDoNotWriteToStdout() throws IOException {
+        BppInstance instance = BppReader.readAll(Path.of(INSTANCES)).get(0);
+        List<Solver> solvers = List.of(GeneticAlgorithm.solver(), AntColonyOptimization.solver(),
+                CuckooSearchGeneticAlgorithm.solver(), HybridFireflyAlgorithm.solver());
+        PrintStream console = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true));
+        try {
+            for (Solver solver : solvers) {
+                assertTrue(solver.solve(instance, Map.of(), 42, 2).isFeasible(instance), solver.getName());
+            }
+        } finally {
+            System.setOut(console);
+        }
+        assertEquals("", output.toString());
+    }
+}
@@ -0,0 +1,99 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BppArchiveTest {
+    // Every instance of a converted BPP.txt comes back in order and by name, with and without its quotes
+    @Test
+    void roundTripsBundledFile(@TempDir Path directory) throws IOException {
+        List<BppInstance> instances = BppReader.readAll(Path.of("Genetic Algorithm/BPP.txt"));
+        Path file = directory.resolve("bundled.bppa");
+        try (BppReader reader = new BppReader(Path.of("Genetic Algorithm/BPP.txt"))) {
+            assertEquals(instances.size(), BppArchive.write(reader, file));
+        }
+        try (BppArchive archive = BppArchive.open(file)) {
+            assertEquals(instances.size(), archive.size());
+            List<BppInstance> read = new ArrayList<>();
+            archive.forEach(read::add);
+            BppReaderTest.assertSameInstances(instances, read);
+            for (BppInstance instance : instances) {
+                BppReaderTest.assertSameInstance(instance, archive.get(instance.getName()));
+                BppReaderTest.assertSameInstance(instance, archive.get(instance.getName().replace("'", "")));
+            }
+            assertNull(archive.get("TEST9999"));
+        }
+    }
+
+    // Random instances with unsorted weights up to Integer.MAX_VALUE, whose zigzag deltas overflow an int, counts that
+    // need five varint bytes and long non-ASCII names. Lookups are checked against a scan over the written list.
+    @Test
+    void roundTripsRandomInstances(@TempDir Path directory) throws IOException {
+        SplittableRandom random = new SplittableRandom(11);
+        List<BppInstance> instances = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            int types = random.nextInt(i % 100 == 0 ? 5000 : 20);
+            int[] weights = new int[types];
+            int[] counts = new int[types];
+            for (int type = 0; type < types; type++) {
+                weights[type] = random.nextBoolean() ? random.nextInt(1, Integer.MAX_VALUE) : random.nextInt(1, 200);
+                counts[type] = random.nextBoolean() ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(10);
+            }
+            String name = (i % 7 == 0 ? "'" : "") + "Instance " + i + "ü".repeat(i % 50) + (i % 7 == 0 ? "'" : "");
+            instances.add(new BppInstance(name, random.nextInt(1, Integer.MAX_VALUE), weights, counts));
+        }
+        Path file = directory.resolve("random.bppa");
+        assertEquals(instances.size(), BppArchive.write(instances.iterator(), file));
+
+        try (BppArchive archive = BppArchive.open(file)) {
+            List<BppInstance> read = new ArrayList<>();
+            archive.forEach(read::add);
+            assertEquals(instances.size(), read.size());
+            for (int i = 0; i < instances.size(); i++) {
+                BppReaderTest.assertSameInstance(instances.get(i), read.get(i));
+            }
+            for (int i = 0; i < 500; i++) {
+                String name = instances.get(random.nextInt(instances.size())).getName();
+                BppReaderTest.assertSameInstance(scan(instances, name), archive.get(name));
+            }
+            assertNull(archive.get("Instance 3000"));
+        }
+    }
+
+    @Test
+    void emptyArchiveHasNoInstances(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("empty.bppa");
+        assertEquals(0, BppArchive.write(List.<BppInstance>of().iterator(), file));
+        try (BppArchive archive = BppArchive.open(file)) {
+            assertEquals(0, archive.size());
+            assertFalse(archive.iterator().hasNext());
+            assertNull(archive.get("TEST0049"));
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("BPP.txt");
+        Files.copy(Path.of("Genetic Algorithm/BPP.txt"), file);
+        assertThrows(IOException.class, () -> BppArchive.open(file));
+    }
+
+    // Reference lookup, quotes are ignored like in the archive
+    private static BppInstance scan(List<BppInstance> instances, String name) {
+        for (BppInstance instance : instances) {
+            if (instance.getName().replace("'", "").equals(name.replace("'", ""))) {
+                return instance;
+            }
+        }
+        return null;
+    }
+}
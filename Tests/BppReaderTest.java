@@ -0,0 +1,139 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BppReaderTest {
+    private static final String[] BUNDLED = {"Genetic Algorithm/BPP.txt", "Ant Colony Optimization/BPP.txt",
+            "Cuckoo Search Genetic Algorithm/BPP.txt", "Hybrid Firefly Algorithm/BPP.txt"};
+
+    // The byte scanner reads the bundled files like a parser over lines and whitespace-separated tokens
+    @Test
+    void readsBundledFilesLikeLineParser() throws IOException {
+        for (String file : BUNDLED) {
+            Path path = Path.of(file);
+            assertSameInstances(parse(Files.readAllLines(path)), BppReader.readAll(path));
+        }
+    }
+
+    // Random files with tabs, CRLF line ends, blank lines between instances and names with spaces and non-ASCII
+    // characters, streamed as well as read at once
+    @Test
+    void readsRandomFilesLikeLineParser(@TempDir Path directory) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int round = 0; round < 20; round++) {
+            String text = randomFile(random, 1 + random.nextInt(20));
+            Path file = directory.resolve("round" + round + ".txt");
+            Files.writeString(file, text, StandardCharsets.UTF_8);
+            List<BppInstance> expected = parse(Arrays.asList(text.split("\n")));
+
+            assertSameInstances(expected, BppReader.readAll(file));
+            try (Stream<BppInstance> stream = BppReader.stream(file)) {
+                assertSameInstances(expected, stream.collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedFiles(@TempDir Path directory) throws IOException {
+        Path missingCount = directory.resolve("missing.txt");
+        Files.writeString(missingCount, "'A'\n2\n100\n10 1\n20\n");
+        assertThrows(IllegalArgumentException.class, () -> BppReader.readAll(missingCount));
+
+        Path overflow = directory.resolve("overflow.txt");
+        Files.writeString(overflow, "'A'\n1\n100\n99999999999 1\n");
+        assertThrows(IllegalArgumentException.class, () -> BppReader.readAll(overflow));
+
+        Path empty = directory.resolve("empty.txt");
+        Files.writeString(empty, " \n\n");
+        try (BppReader reader = new BppReader(empty)) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    static void assertSameInstances(List<BppInstance> expected, List<BppInstance> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameInstance(expected.get(i), actual.get(i));
+        }
+    }
+
+    static void assertSameInstance(BppInstance expected, BppInstance actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getBinCapacity(), actual.getBinCapacity(), expected.getName());
+        assertEquals(expected.getTypeCount(), actual.getTypeCount(), expected.getName());
+        for (int type = 0; type < expected.getTypeCount(); type++) {
+            assertEquals(expected.getWeight(type), actual.getWeight(type), expected.getName());
+            assertEquals(expected.getCount(type), actual.getCount(type), expected.getName());
+        }
+    }
+
+    // Reference parser: the first non-blank line is the name, then tokens are taken from the following lines
+    private static List<BppInstance> parse(List<String> lines) {
+        List<BppInstance> instances = new ArrayList<>();
+        int line = 0;
+        while (true) {
+            while (line < lines.size() && lines.get(line).isBlank()) {
+                line++;
+            }
+            if (line == lines.size()) {
+                return instances;
+            }
+            String name = lines.get(line++).trim();
+            List<Integer> tokens = new ArrayList<>();
+            int types = -1;
+            while (types < 0 || tokens.size() < 2 + 2 * types) {
+                for (String token : lines.get(line++).trim().split("\\s+")) {
+                    if (!token.isEmpty()) {
+                        tokens.add(Integer.parseInt(token));
+                    }
+                }
+                if (types < 0 && !tokens.isEmpty()) {
+                    types = tokens.get(0);
+                }
+            }
+            int[] weights = new int[types];
+            int[] counts = new int[types];
+            for (int type = 0; type < types; type++) {
+                weights[type] = tokens.get(2 + 2 * type);
+                counts[type] = tokens.get(3 + 2 * type);
+            }
+            instances.add(new BppInstance(name, tokens.get(1), weights, counts));
+        }
+    }
+
+    private static String randomFile(SplittableRandom random, int instances) {
+        String[] separators = {" ", "  ", "\t", " \t "};
+        String[] lineEnds = {"\n", "\r\n", " \n"};
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < instances; i++) {
+            if (random.nextBoolean()) {
+                text.append(lineEnds[random.nextInt(lineEnds.length)]);
+            }
+            String name = random.nextBoolean() ? "'TEST" + i + "'" : "Instance " + i + " été";
+            int types = random.nextInt(30);
+            int capacity = 1 + random.nextInt(Integer.MAX_VALUE);
+            text.append(name).append(lineEnds[random.nextInt(lineEnds.length)]);
+            text.append(separators[random.nextInt(separators.length)]).append(types).append('\n');
+            text.append(capacity).append(lineEnds[random.nextInt(lineEnds.length)]);
+            for (int type = 0; type < types; type++) {
+                text.append(separators[random.nextInt(separators.length)]).append(random.nextInt(capacity) + 1)
+                        .append(separators[random.nextInt(separators.length)]).append(random.nextInt(1000))
+                        .append(lineEnds[random.nextInt(lineEnds.length)]);
+            }
+        }
+        return text.toString();
+    }
+}
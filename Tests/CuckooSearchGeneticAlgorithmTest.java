@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CuckooSearchGeneticAlgorithmTest {
+    // Triples of a large, a medium and a small item fill a bin exactly. A random order packed with First-Fit mixes
+    // them badly, so the initial nests are a few bins away from the optimum of 30.
+    private static final BppInstance TRIPLES = new BppInstance("TRIPLES", 10000, new int[]{4000, 3500, 2500},
+            new int[]{30, 30, 30});
+    // Triples that the search completes within a few generations, where the L2 bound of 30 is the optimum
+    private static final BppInstance REACHABLE = new BppInstance("REACHABLE", 10000, new int[]{6000, 2100, 1900},
+            new int[]{30, 30, 30});
+
+    // The first incumbent is the best initial nest, a random order packed with First-Fit, which the search has to
+    // beat. The returned packing is the last incumbent and holds exactly the instance's items.
+    @Test
+    void incumbentImprovesOnInitialNest() {
+        List<SolverResult> incumbents = new ArrayList<>();
+        SolverResult result = CuckooSearchGeneticAlgorithm.solver().solve(TRIPLES, Map.of(), 42, 100,
+                new SearchControl().onIncumbent(incumbents::add));
+
+        int initialBins = incumbents.get(0).getBinCount();
+        assertTrue(result.isFeasible(TRIPLES));
+        assertTrue(result.getBinCount() < initialBins, initialBins + " -> " + result.getBinCount());
+        assertEquals(incumbents.get(incumbents.size() - 1).getBinCount(), result.getBinCount());
+    }
+
+    // Fitness also counts waste, but an incumbent is only published when it needs fewer bins than the previous one
+    @Test
+    void incumbentsUseFewerBinsEachTime() {
+        for (long seed = 1; seed <= 5; seed++) {
+            List<SolverResult> incumbents = new ArrayList<>();
+            CuckooSearchGeneticAlgorithm.solver().solve(TRIPLES, Map.of(), seed, 100,
+                    new SearchControl().onIncumbent(incumbents::add));
+
+            for (int i = 1; i < incumbents.size(); i++) {
+                int before = incumbents.get(i - 1).getBinCount();
+                int after = incumbents.get(i).getBinCount();
+                assertTrue(after < before, "seed " + seed + ": " + before + " -> " + after);
+            }
+        }
+    }
+
+    // Once the best nest reaches the lower bound the search stops, long before its generation budget
+    @Test
+    void stopsAtLowerBound() {
+        int budget = 1000;
+        Telemetry telemetry = new Telemetry("CSGA", REACHABLE.getName(), budget);
+        SolverResult result = CuckooSearchGeneticAlgorithm.solver().solve(REACHABLE, Map.of(), 42, budget,
+                new SearchControl().withTelemetry(telemetry));
+
+        assertEquals(30, LowerBounds.of(REACHABLE));
+        assertTrue(result.isFeasible(REACHABLE));
+        assertEquals(30, result.getBinCount());
+        assertTrue(telemetry.getPublished() < budget, telemetry.getPublished() + " generations");
+    }
+}
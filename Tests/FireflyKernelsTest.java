@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+// The kernels against plain loops over the same data. The tests run with the vector module, so they check the vector
+// kernels including their scalar tails; lengths that are no multiple of any vector length make sure there is a tail.
+class FireflyKernelsTest {
+    private static final int CAPACITY = 10000;
+    private static final int N = 1003;
+
+    @Test
+    void runsVectorized() {
+        assertTrue(FireflyKernels.VECTORIZED);
+    }
+
+    @Test
+    void integerKernelsMatchScalarLoops() {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] swarm = random.ints(2 * N + 5, 0, CAPACITY + 1).toArray();
+        float[] gaussian = new float[N + 1];
+        FireflyKernels.gaussians(gaussian, N, random);
+
+        long sum = 0;
+        for (int k = 0; k < N; k++) {
+            long difference = swarm[3 + k] - swarm[N + 5 + k];
+            sum += difference * difference;
+        }
+        assertEquals(Math.sqrt(sum), FireflyKernels.distance(swarm, 3, swarm, N + 5, N, CAPACITY));
+
+        int[] expected = swarm.clone();
+        float beta = 0.3f;
+        float noise = 250.5f;
+        for (int i = 0; i < N; i++) {
+            int position = expected[3 + i];
+            int movement = (int) ((expected[N + 5 + i] - position) * beta + noise * gaussian[i]);
+            expected[3 + i] = Math.min(Math.max(position + movement, 0), CAPACITY);
+        }
+        FireflyKernels.move(swarm, 3, swarm, N + 5, beta, noise, gaussian, N, CAPACITY);
+        assertArrayEquals(expected, swarm);
+    }
+
+    @Test
+    void keyKernelsMatchScalarLoops() {
+        SplittableRandom random = new SplittableRandom(42);
+        float[] keys = new float[2 * N + 5];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (float) random.nextDouble();
+        }
+        float[] gaussian = new float[N + 1];
+        FireflyKernels.gaussians(gaussian, N, random);
+
+        double sum = 0;
+        for (int k = 0; k < N; k++) {
+            float difference = keys[3 + k] - keys[N + 5 + k];
+            sum += difference * difference;
+        }
+        assertEquals(Math.sqrt(sum), FireflyKernels.distance(keys, 3, keys, N + 5, N), 1e-4);
+
+        float[] expected = keys.clone();
+        for (int i = 0; i < N; i++) {
+            float key = expected[3 + i];
+            expected[3 + i] = key + (expected[N + 5 + i] - key) * 0.3f + 0.1f * gaussian[i];
+        }
+        FireflyKernels.move(keys, 3, keys, N + 5, 0.3f, 0.1f, gaussian, N);
+        assertArrayEquals(expected, keys);
+    }
+
+    @Test
+    void gaussiansAreStandardNormal() {
+        int n = 100_001;
+        float[] buffer = new float[n + 1];
+        FireflyKernels.gaussians(buffer, n, new SplittableRandom(42));
+        double sum = 0;
+        double squares = 0;
+        int withinOne = 0;
+        for (int i = 0; i < n; i++) {
+            assertTrue(Float.isFinite(buffer[i]));
+            sum += buffer[i];
+            squares += buffer[i] * buffer[i];
+            withinOne += Math.abs(buffer[i]) < 1 ? 1 : 0;
+        }
+        double mean = sum / n;
+        assertEquals(0, mean, 0.02);
+        assertEquals(1, squares / n - mean * mean, 0.02);
+        assertEquals(0.6827, (double) withinOne / n, 0.01);
+    }
+}
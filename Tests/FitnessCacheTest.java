@@ -0,0 +1,53 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class FitnessCacheTest {
+    // A nest that was seen before is not evaluated again, even when the caller changed the array in between
+    @Test
+    void hitsOnlyForEqualNests() {
+        FitnessCache cache = new FitnessCache(4);
+        AtomicInteger evaluations = new AtomicInteger();
+        int[] nest = {3, 1, 2, 0};
+
+        assertEquals(1.0, cache.getFitness(nest, n -> evaluations.incrementAndGet()));
+        assertEquals(1.0, cache.getFitness(nest.clone(), n -> evaluations.incrementAndGet()));
+        nest[0] = 1;
+        nest[1] = 3;
+        assertEquals(2.0, cache.getFitness(nest, n -> evaluations.incrementAndGet()));
+        assertEquals(2, evaluations.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getLookups());
+    }
+
+    // The least recently used nest is evicted once the cache is full
+    @Test
+    void evictsLeastRecentlyUsed() {
+        FitnessCache cache = new FitnessCache(2);
+        AtomicInteger evaluations = new AtomicInteger();
+        int[] a = {0, 1};
+        int[] b = {1, 0};
+        int[] c = {1, 1};
+
+        cache.getFitness(a, n -> evaluations.incrementAndGet());
+        cache.getFitness(b, n -> evaluations.incrementAndGet());
+        cache.getFitness(a, n -> evaluations.incrementAndGet());
+        cache.getFitness(c, n -> evaluations.incrementAndGet());
+        cache.getFitness(a, n -> evaluations.incrementAndGet());
+        assertEquals(3, evaluations.get());
+        cache.getFitness(b, n -> evaluations.incrementAndGet());
+        assertEquals(4, evaluations.get());
+    }
+
+    // The check hash is independent of the key hash: swapping two items changes both
+    @Test
+    void hashesDifferForSwappedItems() {
+        int[] nest = {5, 7, 9, 11};
+        int[] swapped = {7, 5, 9, 11};
+        assertNotEquals(FitnessCache.hash(nest), FitnessCache.hash(swapped));
+        assertNotEquals(FitnessCache.checkHash(nest), FitnessCache.checkHash(swapped));
+        assertNotEquals(FitnessCache.hash(nest), FitnessCache.checkHash(nest));
+    }
+}
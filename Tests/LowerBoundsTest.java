@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class LowerBoundsTest {
+    // L1 and L2 agree with their textbook definitions, computed directly for every threshold
+    @Test
+    void matchesDirectDefinitions() {
+        SplittableRandom random = new SplittableRandom(13);
+        for (int round = 0; round < 2000; round++) {
+            int capacity = 1 + random.nextInt(round % 2 == 0 ? 20 : 1000);
+            int[] sizes = random.ints(random.nextInt(60), 1, capacity + 1).toArray();
+            assertEquals(l1(sizes, capacity), LowerBounds.l1(sizes, capacity), Arrays.toString(sizes));
+            assertEquals(l2(sizes, capacity), LowerBounds.l2(sizes, capacity), Arrays.toString(sizes));
+        }
+    }
+
+    // L1 <= L2 <= L3 <= the optimum, which an exhaustive search finds for a few items
+    @Test
+    void boundsNeverExceedOptimum() {
+        SplittableRandom random = new SplittableRandom(17);
+        int tighterL3 = 0;
+        for (int round = 0; round < 3000; round++) {
+            int capacity = 2 + random.nextInt(30);
+            int[] sizes = random.ints(1 + random.nextInt(9), 1, capacity + 1).toArray();
+            int l1 = LowerBounds.l1(sizes, capacity);
+            int l2 = LowerBounds.l2(sizes, capacity);
+            int l3 = LowerBounds.l3(sizes, capacity);
+            int optimum = optimum(sizes, capacity);
+            String instance = capacity + " " + Arrays.toString(sizes);
+            assertTrue(l1 <= l2 && l2 <= l3 && l3 <= optimum, instance + ": " + l1 + " " + l2 + " " + l3 + " " + optimum);
+            assertEquals(l3, LowerBounds.of(sizes, capacity));
+            if (l3 > l2) {
+                tighterL3++;
+            }
+        }
+        assertTrue(tighterL3 > 0, "The reduction never raised the bound");
+    }
+
+    // Instances whose bounds are known by hand
+    @Test
+    void knownInstances() throws IOException {
+        // Three items above half the capacity need a bin each
+        assertEquals(2, LowerBounds.l1(new int[]{6, 6, 6}, 10));
+        assertEquals(3, LowerBounds.l2(new int[]{6, 6, 6}, 10));
+        // The total fits into two bins, but a 6 has room for only one more item, so the reduction fixes {6, 3} twice
+        // and the 2 needs a third bin
+        assertEquals(2, LowerBounds.l2(new int[]{6, 6, 3, 3, 2}, 10));
+        assertEquals(3, LowerBounds.l3(new int[]{6, 6, 3, 3, 2}, 10));
+        // A total that is a multiple of the capacity: three bins filled exactly
+        assertEquals(3, LowerBounds.of(new int[]{4, 6, 3, 7, 5, 5}, 10));
+        // TEST0049 packs into 11 bins, which the GA proves optimal with this bound
+        BppInstance test0049 = BppReader.readAll(Path.of("Genetic Algorithm/BPP.txt")).stream()
+                .filter(instance -> instance.getName().equals("'TEST0049'")).findFirst().orElseThrow();
+        assertEquals(11, LowerBounds.of(test0049));
+    }
+
+    private static int l1(int[] sizes, int capacity) {
+        long total = Arrays.stream(sizes).asLongStream().sum();
+        return (int) Math.ceil((double) total / capacity);
+    }
+
+    // Martello & Toth L2: the largest L(k) over k = 0 and every size up to C / 2
+    private static int l2(int[] sizes, int capacity) {
+        int bound = l2(sizes, capacity, 0);
+        for (int k : sizes) {
+            if (2 * k <= capacity) {
+                bound = Math.max(bound, l2(sizes, capacity, k));
+            }
+        }
+        return bound;
+    }
+
+    private static int l2(int[] sizes, int capacity, int k) {
+        int large = 0;        // Larger than C - k
+        int medium = 0;       // C - k >= size > C / 2
+        long mediumTotal = 0;
+        long smallTotal = 0;  // C / 2 >= size >= k
+        for (int size : sizes) {
+            if (size > capacity - k) {
+                large++;
+            } else if (2 * size > capacity) {
+                medium++;
+                mediumTotal += size;
+            } else if (size >= k) {
+                smallTotal += size;
+            }
+        }
+        long free = (long) medium * capacity - mediumTotal;
+        return large + medium + (int) Math.max(0, Math.ceil((double) (smallTotal - free) / capacity));
+    }
+
+    // Fewest bins of any packing, by trying every bin for every item, largest first
+    private static int optimum(int[] sizes, int capacity) {
+        int[] sorted = Arrays.stream(sizes).boxed().sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+        return pack(sorted, 0, new int[sorted.length], 0, capacity, sorted.length);
+    }
+
+    private static int pack(int[] sizes, int item, int[] loads, int bins, int capacity, int best) {
+        if (bins >= best) {
+            return best;
+        }
+        if (item == sizes.length) {
+            return bins;
+        }
+        for (int bin = 0; bin <= bins; bin++) {
+            if (loads[bin] + sizes[item] <= capacity) {
+                loads[bin] += sizes[item];
+                best = pack(sizes, item + 1, loads, Math.max(bins, bin + 1), capacity, best);
+                loads[bin] -= sizes[item];
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,184 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class PackingEngineTest {
+    // Small capacities give many bins with the same residual, larger ones a deep Best-Fit tree
+    private static final int[] CAPACITIES = {1, 7, 100, 1000};
+
+    // First-Fit over the segment tree picks the same bin as a scan from the first bin
+    @Test
+    void firstFitMatchesLinearScan() {
+        SplittableRandom random = new SplittableRandom(1);
+        PackingEngine engine = new PackingEngine();
+        for (int capacity : CAPACITIES) {
+            for (int round = 0; round < 20; round++) {
+                int[] sizes = randomSizes(random, 1 + random.nextInt(300), capacity);
+                engine.reset(capacity, sizes.length);
+                int[] loads = new int[sizes.length];
+                int bins = 0;
+                for (int size : sizes) {
+                    int bin = 0;
+                    while (bin < bins && loads[bin] + size > capacity) {
+                        bin++;
+                    }
+                    if (bin == bins) {
+                        bins++;
+                    }
+                    loads[bin] += size;
+                    assertEquals(bin, engine.firstFit(size));
+                }
+                assertEquals(bins, engine.getBinCount());
+                assertLoads(loads, bins, engine);
+            }
+        }
+    }
+
+    // Best-Fit puts every item into a bin with the least room that still fits it. Bins with the same residual have
+    // the same load, so the engine may pick any of them and the loads still match the reference.
+    @Test
+    void bestFitPicksTightestBin() {
+        SplittableRandom random = new SplittableRandom(2);
+        PackingEngine engine = new PackingEngine();
+        for (int capacity : CAPACITIES) {
+            for (int round = 0; round < 20; round++) {
+                int[] sizes = randomSizes(random, 1 + random.nextInt(300), capacity);
+                engine.reset(capacity, sizes.length);
+                int[] loads = new int[sizes.length];
+                int bins = 0;
+                for (int size : sizes) {
+                    int tightest = -1;
+                    for (int bin = 0; bin < bins; bin++) {
+                        if (loads[bin] + size <= capacity && (tightest < 0 || loads[bin] > loads[tightest])) {
+                            tightest = bin;
+                        }
+                    }
+                    int bin = engine.bestFit(size);
+                    if (tightest < 0) {
+                        assertEquals(bins++, bin);
+                    } else {
+                        assertEquals(loads[tightest], loads[bin]);
+                    }
+                    loads[bin] += size;
+                }
+                assertEquals(bins, engine.getBinCount());
+                assertLoads(loads, bins, engine);
+            }
+        }
+    }
+
+    // Removing items and placing them again keeps both indexes consistent with the loads
+    @Test
+    void removeKeepsFirstAndBestFitConsistent() {
+        SplittableRandom random = new SplittableRandom(3);
+        int capacity = 50;
+        PackingEngine engine = new PackingEngine(capacity, 200);
+        int[] sizes = randomSizes(random, 200, capacity);
+        int[] binOf = new int[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            binOf[i] = engine.bestFit(sizes[i]);
+        }
+        for (int step = 0; step < 2000; step++) {
+            int item = random.nextInt(sizes.length);
+            engine.remove(binOf[item], sizes[item]);
+            binOf[item] = random.nextBoolean() ? engine.firstFit(sizes[item]) : engine.bestFit(sizes[item]);
+        }
+        int[] loads = new int[engine.getBinCount()];
+        for (int i = 0; i < sizes.length; i++) {
+            loads[binOf[i]] += sizes[i];
+        }
+        assertLoads(loads, loads.length, engine);
+        // The next First-Fit goes to the first bin with room, the next Best-Fit to the fullest bin with room
+        int size = 1 + random.nextInt(capacity);
+        int first = IntStream.range(0, loads.length).filter(b -> loads[b] + size <= capacity).findFirst()
+                .orElse(loads.length);
+        int fullest = IntStream.range(0, loads.length).filter(b -> loads[b] + size <= capacity).map(b -> loads[b])
+                .max().orElse(-1);
+        assertEquals(first, engine.firstFit(size));
+        engine.remove(first, size);
+        int bin = engine.bestFit(size);
+        if (fullest < 0) {
+            assertEquals(loads.length, bin);
+        } else {
+            assertEquals(fullest, loads[bin]);
+        }
+    }
+
+    // A decode resumed from a snapshot of the loads ends like the decode that ran through
+    @Test
+    void restoreResumesDecode() {
+        SplittableRandom random = new SplittableRandom(4);
+        int capacity = 100;
+        int[] sizes = randomSizes(random, 500, capacity);
+        PackingEngine engine = new PackingEngine();
+        int[] binOf = new int[sizes.length];
+        int bins = engine.firstFit(sizes, capacity, binOf);
+
+        engine.reset(capacity, sizes.length);
+        for (int i = 0; i < 250; i++) {
+            engine.firstFit(sizes[i]);
+        }
+        int[] snapshot = new int[engine.getBinCount()];
+        int open = engine.copyLoads(snapshot);
+        engine.firstFit(new int[]{capacity}, capacity, new int[1]);
+        engine.restore(capacity, sizes.length, snapshot, open);
+        for (int i = 250; i < sizes.length; i++) {
+            assertEquals(binOf[i], engine.firstFit(sizes[i]));
+        }
+        assertEquals(bins, engine.getBinCount());
+    }
+
+    // First-Fit Decreasing packs the items in the order of a stable sort by decreasing size
+    @Test
+    void firstFitDecreasingMatchesSortedFirstFit() {
+        SplittableRandom random = new SplittableRandom(5);
+        int capacity = 60;
+        int[] sizes = randomSizes(random, 400, capacity);
+        int[] order = IntStream.range(0, sizes.length).boxed()
+                .sorted(Comparator.comparingInt((Integer item) -> sizes[item]).reversed())
+                .mapToInt(Integer::intValue).toArray();
+        assertArrayEquals(order, PackingEngine.sortBySizeDescending(sizes, capacity));
+
+        int[] sorted = Arrays.stream(order).map(item -> sizes[item]).toArray();
+        int[] sortedBins = new int[sizes.length];
+        PackingEngine engine = new PackingEngine();
+        int bins = engine.firstFit(sorted, capacity, sortedBins);
+        int[] binOf = new int[sizes.length];
+        assertEquals(bins, engine.firstFitDecreasing(sizes, capacity, binOf));
+        for (int k = 0; k < order.length; k++) {
+            assertEquals(sortedBins[k], binOf[order[k]]);
+        }
+    }
+
+    @Test
+    void rejectsItemsLargerThanCapacity() {
+        PackingEngine engine = new PackingEngine(10, 4);
+        assertThrows(IllegalArgumentException.class, () -> engine.firstFit(11));
+        assertThrows(IllegalArgumentException.class, () -> engine.bestFit(11));
+        for (int i = 0; i < 4; i++) {
+            engine.firstFit(10);
+        }
+        assertThrows(IllegalArgumentException.class, () -> engine.firstFit(1));
+    }
+
+    private static int[] randomSizes(SplittableRandom random, int count, int capacity) {
+        return random.ints(count, 1, capacity + 1).toArray();
+    }
+
+    private static void assertLoads(int[] loads, int bins, PackingEngine engine) {
+        long waste = 0;
+        for (int bin = 0; bin < bins; bin++) {
+            assertEquals(loads[bin], engine.getLoad(bin), "bin " + bin);
+            assertTrue(loads[bin] <= engine.getBinCapacity());
+            waste += engine.getBinCapacity() - loads[bin];
+        }
+        assertEquals(waste, engine.getWaste());
+    }
+}
@@ -0,0 +1,109 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class PopulationTest {
+    // Random offers and in-place changes, after each of which the heaps agree with a scan over the slots: the best
+    // and the worst individual, ties going to the lowest slot, and the number of distinct packings
+    @Test
+    void heapsMatchLinearScan() {
+        for (boolean rejectDuplicates : new boolean[]{false, true}) {
+            SplittableRandom random = new SplittableRandom(rejectDuplicates ? 2 : 1);
+            for (int size : new int[]{1, 2, 7, 100}) {
+                List<GeneticAlgorithm.Individual> slots = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    slots.add(individual(random));
+                }
+                Population population = new Population(new ArrayList<>(slots), rejectDuplicates);
+                assertMatches(slots, population);
+                for (int step = 0; step < 5000; step++) {
+                    if (random.nextInt(4) == 0) {
+                        int slot = random.nextInt(size);
+                        GeneticAlgorithm.Individual changed = slots.get(slot);
+                        changed.binCount = 1 + random.nextInt(20);
+                        changed.hash = random.nextInt(30);
+                        population.update(slot);
+                    } else {
+                        GeneticAlgorithm.Individual offspring = individual(random);
+                        int worst = worstSlot(slots);
+                        boolean accepted = offspring.getFitness() > slots.get(worst).getFitness()
+                                && !(rejectDuplicates && slots.stream().anyMatch(s -> s.hash == offspring.hash));
+                        assertEquals(accepted, population.offer(offspring));
+                        if (accepted) {
+                            slots.set(worst, offspring);
+                        }
+                    }
+                    assertMatches(slots, population);
+                }
+            }
+        }
+    }
+
+    // With rejection the population never takes in a second copy of a packing, without it copies pile up
+    @Test
+    void rejectsCopiesOfPresentPackings() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<GeneticAlgorithm.Individual> initial = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            initial.add(individual(20, i));
+        }
+        Population rejecting = new Population(new ArrayList<>(initial), true);
+        Population accepting = new Population(new ArrayList<>(initial), false);
+        for (int step = 0; step < 1000; step++) {
+            int bins = 19 - step / 100;
+            long hash = random.nextInt(60);
+            rejecting.offer(individual(bins, hash));
+            accepting.offer(individual(bins, hash));
+        }
+        assertEquals(rejecting.size(), rejecting.distinctCount());
+        assertTrue(accepting.distinctCount() < accepting.size());
+        assertFalse(rejecting.offer(individual(1, rejecting.best().hash)));
+        assertTrue(rejecting.offer(individual(1, 1000)));
+        assertEquals(1, rejecting.best().binCount);
+    }
+
+    private static void assertMatches(List<GeneticAlgorithm.Individual> slots, Population population) {
+        int best = 0;
+        for (int slot = 1; slot < slots.size(); slot++) {
+            if (slots.get(slot).getFitness() > slots.get(best).getFitness()) {
+                best = slot;
+            }
+        }
+        assertSame(slots.get(best), population.best());
+        assertSame(slots.get(worstSlot(slots)), population.worst());
+        assertEquals(slots.stream().mapToLong(s -> s.hash).distinct().count(), population.distinctCount());
+        int slot = 0;
+        for (GeneticAlgorithm.Individual individual : population) {
+            assertSame(slots.get(slot++), individual);
+        }
+        assertEquals(slots.size(), slot);
+    }
+
+    private static int worstSlot(List<GeneticAlgorithm.Individual> slots) {
+        int worst = 0;
+        for (int slot = 1; slot < slots.size(); slot++) {
+            if (slots.get(slot).getFitness() < slots.get(worst).getFitness()) {
+                worst = slot;
+            }
+        }
+        return worst;
+    }
+
+    // Few bin counts and hashes, so that ties and copies are common
+    private static GeneticAlgorithm.Individual individual(SplittableRandom random) {
+        return individual(1 + random.nextInt(20), random.nextInt(30));
+    }
+
+    private static GeneticAlgorithm.Individual individual(int binCount, long hash) {
+        GeneticAlgorithm.Individual individual = new GeneticAlgorithm.Individual(1);
+        individual.binCount = binCount;
+        individual.hash = hash;
+        return individual;
+    }
+}
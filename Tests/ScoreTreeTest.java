@@ -0,0 +1,99 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class ScoreTreeTest {
+    // Whole-number weights keep every sum exact, so the tree has to agree with the reference arrays to the bit
+    @Test
+    void matchesArrayScan() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int size : new int[]{1, 2, 3, 8, 9, 100, 1000}) {
+            ScoreTree tree = new ScoreTree(size);
+            double[] weights = new double[size];
+            double[] maxWeights = new double[size];
+            for (int leaf = 0; leaf < size; leaf++) {
+                weights[leaf] = maxWeights[leaf] = random.nextInt(4);
+                tree.setQuietly(leaf, weights[leaf]);
+            }
+            tree.rebuild();
+            for (int step = 0; step < 500; step++) {
+                int leaf = random.nextInt(size);
+                if (random.nextBoolean()) {
+                    // A group leaf, sampled by its total and exploited by its best member
+                    weights[leaf] = random.nextInt(10);
+                    maxWeights[leaf] = random.nextInt(10);
+                    tree.set(leaf, weights[leaf], maxWeights[leaf]);
+                } else {
+                    weights[leaf] = maxWeights[leaf] = random.nextInt(4);
+                    tree.set(leaf, weights[leaf]);
+                }
+                assertMatches(weights, maxWeights, tree, random);
+            }
+        }
+    }
+
+    // Every target in the cumulative interval of a leaf samples that leaf, leaves of weight 0 are never sampled
+    @Test
+    void samplesEveryIntervalBoundary() {
+        double[] weights = {0, 3, 0, 0, 1, 2, 0};
+        ScoreTree tree = new ScoreTree(weights.length);
+        for (int leaf = 0; leaf < weights.length; leaf++) {
+            tree.set(leaf, weights[leaf]);
+        }
+        int[] expected = {1, 1, 1, 4, 5, 5};
+        for (int target = 0; target < expected.length; target++) {
+            assertEquals(expected[target], tree.sample(target));
+            assertEquals(expected[target], tree.sample(target + 0.999));
+        }
+        assertEquals(6, tree.total());
+        assertEquals(1, tree.argmax());
+        assertEquals(5, tree.argmax(2, 7));
+        assertEquals(-1, tree.argmax(3, 3));
+    }
+
+    private static void assertMatches(double[] weights, double[] maxWeights, ScoreTree tree, SplittableRandom random) {
+        int size = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        assertEquals(total, tree.total());
+        int leaf = random.nextInt(size);
+        assertEquals(weights[leaf], tree.weight(leaf));
+        assertEquals(argmax(maxWeights, 0, size), tree.argmax());
+
+        int from = random.nextInt(size + 1);
+        int to = from + random.nextInt(size + 1 - from);
+        double rangeSum = 0;
+        double rangeMax = 0;
+        for (int i = from; i < to; i++) {
+            rangeSum += weights[i];
+            rangeMax = Math.max(rangeMax, maxWeights[i]);
+        }
+        assertEquals(rangeSum, tree.rangeSum(from, to));
+        assertEquals(rangeMax, tree.rangeMax(from, to));
+        assertEquals(from < to ? argmax(maxWeights, from, to) : -1, tree.argmax(from, to));
+
+        if (total > 0) {
+            double target = random.nextInt((int) total) + (random.nextBoolean() ? 0 : random.nextDouble());
+            int sampled = 0;
+            double end = weights[0];
+            while (end <= target) {
+                end += weights[++sampled];
+            }
+            assertEquals(sampled, tree.sample(target), "target " + target);
+        }
+    }
+
+    // Leftmost leaf of [from, to) with the largest max weight
+    private static int argmax(double[] maxWeights, int from, int to) {
+        int best = from;
+        for (int i = from + 1; i < to; i++) {
+            if (maxWeights[i] > maxWeights[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,40 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TelemetryTest {
+    // Operator calls reported from several threads at once, as by the pool workers of the parallel MGG, are all
+    // counted in the record of the generation
+    @Test
+    void countsConcurrentCallsExactly() throws InterruptedException {
+        Telemetry telemetry = new Telemetry("GA", "test", 4);
+        int threads = 4;
+        int callsPerThread = 100_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int k = 0; k < callsPerThread; k++) {
+                    long start = telemetry.start(Telemetry.Operator.CROSSOVER);
+                    telemetry.stop(Telemetry.Operator.CROSSOVER, start);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        telemetry.endGeneration(0, 1, 1, 1, 0, 0);
+        telemetry.endGeneration(1, 1, 1, 1, 0, 0);
+
+        long[] records = new long[2 * Telemetry.RECORD_SIZE];
+        int[] count = new int[1];
+        telemetry.read(0, records, count);
+        assertEquals(2, count[0]);
+        assertEquals((long) threads * callsPerThread, records[Telemetry.CALLS + Telemetry.Operator.CROSSOVER.ordinal()]);
+        // Counts are per generation
+        assertEquals(0, records[Telemetry.RECORD_SIZE + Telemetry.CALLS + Telemetry.Operator.CROSSOVER.ordinal()]);
+    }
+}